@@ -5,6 +5,8 @@ const cors = require("cors");
 const { createProxyMiddleware } = require("http-proxy-middleware");
 const authenticateToken = require("./middlewares/authenticate");
 const authorizeRoles = require("./middlewares/authorize");
+const { startRevocationSync } = require("./revocation");
+const { startKeySync } = require("./keys");
 
 const app = express();
 const PORT = process.env.PORT || 3333;
@@ -21,26 +23,74 @@ app.use(
   })
 );
 
+// Rotas do auth-service que exigem token: o auth-service confere
+// x-user-id/x-user-type
+const proxyAuthAutenticado = createProxyMiddleware({
+  target: AUTH_MS_URL,
+  changeOrigin: true,
+  pathRewrite: (path, req) => req.originalUrl.replace(/^\/api\/auth/, ""),
+  onProxyReq: (proxyReq, req) => {
+    proxyReq.removeHeader("Authorization");
+    proxyReq.setHeader("x-user-id", req.user.id);
+    proxyReq.setHeader("x-user-type", req.user.type);
+  },
+});
+
+app.use("/api/auth/sessoes", authenticateToken, proxyAuthAutenticado);
+
+// Cadastro em lote de funcionários (integração pelo RH)
+app.use(
+  "/api/auth/register/lote",
+  authenticateToken,
+  authorizeRoles("ADMIN"),
+  proxyAuthAutenticado
+);
+
+// A lista de revogação é lida só pelo próprio gateway, direto do
+// auth-service (revocation.js); não precisa ficar exposta aos clientes
+app.use("/api/auth/revogados", (req, res) => {
+  res.status(404).json({ message: "Rota não encontrada" });
+});
+
 // Auth sem autenticação
 app.use(
   "/api/auth",
   createProxyMiddleware({
     target: AUTH_MS_URL,
     changeOrigin: true,
-    onProxyReq: (proxyReq) => proxyReq.removeHeader("Authorization"),
+    onProxyReq: (proxyReq, req) => {
+      proxyReq.removeHeader("Authorization");
+      proxyReq.removeHeader("x-user-id");
+      proxyReq.removeHeader("x-user-type");
+      // Usado pelo limite de tentativas de login; o valor enviado pelo
+      // cliente é descartado para não permitir trocar de IP a cada tentativa
+      proxyReq.setHeader("x-forwarded-for", req.socket.remoteAddress);
+    },
   })
 );
 
-// Endpoints específicos acessíveis também por FUNCIONARIO
-const allowPacienteFuncionario = [
-  "/api/paciente/buscar",
-  "/api/paciente/todos",
-];
+// Endpoints específicos acessíveis também por FUNCIONARIO. Dentro de
+// app.use("/api/paciente"), req.path já vem sem o prefixo
+const allowPacienteFuncionario = ["/buscar"];
+
+// Listagem, exportação e autocompletar trazem dados de todos os pacientes:
+// só FUNCIONARIO. Cada item vale para o caminho exato e os abaixo dele
+const allowSomenteFuncionario = ["/buscar/nome", "/todos"];
+
+const corresponde = (path) => (prefixo) =>
+  path === prefixo || path.startsWith(prefixo + "/");
 
 app.use("/api/paciente", (req, res, next) => {
-  if (allowPacienteFuncionario.some((path) => req.path.startsWith(path))) {
-    return authorizeRoles("PACIENTE", "FUNCIONARIO")(req, res, () =>
-      authenticateToken(req, res, () => proxyPaciente(req, res))
+  if (allowSomenteFuncionario.some(corresponde(req.path))) {
+    return authenticateToken(req, res, () =>
+      authorizeRoles("FUNCIONARIO")(req, res, () => proxyPaciente(req, res))
+    );
+  }
+  if (allowPacienteFuncionario.includes(req.path)) {
+    return authenticateToken(req, res, () =>
+      authorizeRoles("PACIENTE", "FUNCIONARIO")(req, res, () =>
+        proxyPaciente(req, res)
+      )
     );
   }
   return authenticateToken(req, res, () =>
@@ -54,6 +104,8 @@ function proxyPaciente(req, res) {
     changeOrigin: true,
     onProxyReq: (proxyReq) => {
       proxyReq.setHeader("Authorization", req.headers["authorization"]);
+      // Conferido pelo paciente-service nas rotas só de FUNCIONARIO
+      proxyReq.setHeader("x-user-type", req.user.type);
 
       if (req.path === "/completar") {
         proxyReq.setHeader("x-user-id", req.user.id);
@@ -127,6 +179,9 @@ app.use(
   })
 );
 
+startRevocationSync();
+startKeySync();
+
 app.listen(PORT, () => {
   console.log(`API Gateway rodando na porta ${PORT}`);
 });
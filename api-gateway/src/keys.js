@@ -0,0 +1,89 @@
+const axios = require("axios");
+const crypto = require("crypto");
+
+// Chaves para verificar os tokens emitidos pelo auth-service, escolhidas
+// pelo "kid" do cabeçalho.
+// - HS256: JWT_SECRET é a chave atual; JWT_PREVIOUS_SECRETS ("kid=segredo,...")
+//   mantém as anteriores válidas durante uma rotação. Tokens sem kid usam
+//   JWT_SECRET.
+// - ES256: as chaves públicas vêm de /jwks do auth-service, atualizadas
+//   periodicamente. Um kid desconhecido dispara no máximo uma busca a cada
+//   JWKS_MISS_COOLDOWN_MS, para que tokens forjados não inundem o
+//   auth-service; nesse intervalo o kid é recusado direto.
+
+const AUTH_MS_URL = process.env.AUTH_MS_URL || "http://auth-service:8081";
+const POLL_MS = Number(process.env.JWKS_POLL_MS || 60000);
+const MISS_COOLDOWN_MS = Number(process.env.JWKS_MISS_COOLDOWN_MS || 30000);
+
+const jwtSecret = process.env.JWT_SECRET;
+const previousSecrets = new Map(
+  (process.env.JWT_PREVIOUS_SECRETS || "")
+    .split(",")
+    .map((par) => par.trim().split("="))
+    .filter((partes) => partes.length >= 2)
+    .map(([kid, ...segredo]) => [kid.trim(), segredo.join("=").trim()])
+);
+
+let publicKeys = new Map();
+let emAndamento = null;
+let ultimaBuscaPorKid = 0;
+
+// Quem chama durante uma busca recebe a mesma promise, então há no máximo
+// uma requisição ao /jwks em andamento
+function refresh() {
+  if (!emAndamento) {
+    emAndamento = buscarChaves().finally(() => {
+      emAndamento = null;
+    });
+  }
+  return emAndamento;
+}
+
+async function buscarChaves() {
+  try {
+    const response = await axios.get(`${AUTH_MS_URL}/jwks`);
+    const chaves = new Map();
+    for (const jwk of response.data.keys || []) {
+      const pem = crypto
+        .createPublicKey({ key: jwk, format: "jwk" })
+        .export({ type: "spki", format: "pem" });
+      chaves.set(jwk.kid, pem);
+    }
+    publicKeys = chaves;
+  } catch (error) {
+    // Mantém as últimas chaves conhecidas até o auth-service voltar
+    console.error("[JWKS] Falha ao atualizar chaves:", error.message);
+  }
+}
+
+// Assinatura esperada por jwt.verify. A chave depende do alg do cabeçalho,
+// então um token HS256 nunca é verificado com uma chave pública como segredo
+function getKey(header, callback) {
+  if (header.alg === "HS256") {
+    return callback(null, previousSecrets.get(header.kid) || jwtSecret);
+  }
+  if (header.alg === "ES256") {
+    const pem = publicKeys.get(header.kid);
+    if (pem) return callback(null, pem);
+
+    const agora = Date.now();
+    if (agora - ultimaBuscaPorKid < MISS_COOLDOWN_MS) {
+      return callback(new Error(`Unknown key id: ${header.kid}`));
+    }
+    // Pode ser uma chave recém-rotacionada: busca de novo e tenta outra vez
+    ultimaBuscaPorKid = agora;
+    return refresh().then(() => {
+      const atualizada = publicKeys.get(header.kid);
+      if (atualizada) return callback(null, atualizada);
+      return callback(new Error(`Unknown key id: ${header.kid}`));
+    });
+  }
+  return callback(new Error(`Unsupported algorithm: ${header.alg}`));
+}
+
+function startKeySync() {
+  refresh();
+  setInterval(refresh, POLL_MS).unref();
+}
+
+module.exports = { getKey, startKeySync };
@@ -1,6 +1,6 @@
 const jwt = require("jsonwebtoken");
-
-const jwtSecret = process.env.JWT_SECRET;
+const { isRevoked } = require("../revocation");
+const { getKey } = require("../keys");
 
 function authenticateToken(req, res, next) {
   const authHeader = req.headers["authorization"];
@@ -16,7 +16,7 @@ function authenticateToken(req, res, next) {
   }
 
   try {
-    jwt.verify(token, jwtSecret, (err, user) => {
+    jwt.verify(token, getKey, { algorithms: ["HS256", "ES256"] }, (err, user) => {
       if (err) {
         console.error("[JWT] Token verification failed:", err.message);
         return res.status(403).json({ message: "Invalid or expired token" });
@@ -25,6 +25,10 @@ function authenticateToken(req, res, next) {
         console.error("[JWT] Token missing 'sub' claim");
         return res.status(401).json({ message: "Token missing subject (sub)" });
       }
+      if (isRevoked(user.jti)) {
+        console.error("[JWT] Token revoked:", user.jti);
+        return res.status(401).json({ message: "Token revoked" });
+      }
       req.user = {
         id: user.sub,
         cpf: user.cpf,
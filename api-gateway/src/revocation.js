@@ -0,0 +1,62 @@
+const axios = require("axios");
+
+// Cópia local do filtro de Bloom de jti revogados publicado pelo
+// auth-service em /revogados. As posições são calculadas exatamente como em
+// FiltroBloom.java (duas FNV-1a de 32 bits + hashing duplo); se mudar lá,
+// precisa mudar aqui também.
+
+const AUTH_MS_URL = process.env.AUTH_MS_URL || "http://auth-service:8081";
+const POLL_MS = Number(process.env.REVOCATION_POLL_MS || 5000);
+
+const FNV_PRIMO = 0x01000193;
+const FNV_BASE_1 = 0x811c9dc5;
+const FNV_BASE_2 = 0x050c5d1f;
+
+let filtro = null;
+let etag = null;
+
+function fnv1a(bytes, base) {
+  let hash = base;
+  for (let i = 0; i < bytes.length; i++) {
+    hash ^= bytes[i];
+    hash = Math.imul(hash, FNV_PRIMO);
+  }
+  return hash >>> 0;
+}
+
+function isRevoked(jti) {
+  if (!filtro || !jti) return false;
+  const { m, k, bits } = filtro;
+  const bytes = Buffer.from(String(jti), "utf8");
+  const h1 = fnv1a(bytes, FNV_BASE_1);
+  const h2 = (fnv1a(bytes, FNV_BASE_2) | 1) >>> 0;
+  for (let i = 0; i < k; i++) {
+    const posicao = ((h1 + Math.imul(i, h2)) >>> 0) % m;
+    if ((bits[posicao >>> 3] & (1 << (posicao & 7))) === 0) return false;
+  }
+  return true;
+}
+
+async function refresh() {
+  try {
+    const response = await axios.get(`${AUTH_MS_URL}/revogados`, {
+      headers: etag ? { "If-None-Match": etag } : {},
+      validateStatus: (status) => status === 200 || status === 304,
+    });
+    if (response.status === 200) {
+      const { m, k, bits } = response.data;
+      filtro = { m, k, bits: Buffer.from(bits, "base64") };
+      etag = response.headers["etag"] || null;
+    }
+  } catch (error) {
+    // Mantém o último filtro conhecido até o auth-service voltar
+    console.error("[Revogação] Falha ao atualizar lista:", error.message);
+  }
+}
+
+function startRevocationSync() {
+  refresh();
+  setInterval(refresh, POLL_MS).unref();
+}
+
+module.exports = { isRevoked, startRevocationSync };
@@ -2,8 +2,10 @@ package br.com.gestao_hospitalar.auth_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AuthServiceApp {
     public static void main(String[] args) {
         SpringApplication.run(AuthServiceApp.class, args);
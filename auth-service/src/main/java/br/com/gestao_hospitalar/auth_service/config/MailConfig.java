@@ -13,19 +13,29 @@ public class MailConfig {
 
     @Bean
     public JavaMailSender getJavaMailSender(
+        @Value("${spring.mail.host:smtp.gmail.com}") String host,
+        @Value("${spring.mail.port:587}") int port,
         @Value("${spring.mail.username}") String username,
-        @Value("${spring.mail.password}") String password
+        @Value("${spring.mail.password}") String password,
+        @Value("${spring.mail.properties.mail.smtp.auth:true}") String auth,
+        @Value("${spring.mail.properties.mail.smtp.starttls.enable:true}") String starttls
     ) {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost("smtp.gmail.com");
-        mailSender.setPort(587);
+        mailSender.setHost(host);
+        mailSender.setPort(port);
         mailSender.setUsername(username);
         mailSender.setPassword(password);
 
         Properties props = mailSender.getJavaMailProperties();
         props.put("mail.transport.protocol", "smtp");
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
+        props.put("mail.smtp.auth", auth);
+        props.put("mail.smtp.starttls.enable", starttls);
+
+        // O envio é feito pelo EmailDispatcher; timeouts evitam que um SMTP
+        // lento prenda o agendador indefinidamente
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "10000");
+        props.put("mail.smtp.writetimeout", "10000");
 
         return mailSender;
     }
@@ -23,7 +23,7 @@ public class StartupDataLoader implements CommandLineRunner {
 
     if (userRepository.findByCpf(cpf).isEmpty()) {
       String password = "TADS";
-      String hashedPassword = customPasswordEncoder.encodeWithSHA256(password);
+      String hashedPassword = customPasswordEncoder.encode(password);
 
       User user = new User();
       user.setCpf(cpf);
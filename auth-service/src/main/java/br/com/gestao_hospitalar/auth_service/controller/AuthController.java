@@ -3,23 +3,53 @@ package br.com.gestao_hospitalar.auth_service.controller;
 import br.com.gestao_hospitalar.auth_service.dto.ApiResponse;
 import br.com.gestao_hospitalar.auth_service.dto.AuthRequest;
 import br.com.gestao_hospitalar.auth_service.dto.AuthResponse;
+import br.com.gestao_hospitalar.auth_service.dto.CadastroLoteRequest;
+import br.com.gestao_hospitalar.auth_service.dto.CadastroLoteResponse;
 import br.com.gestao_hospitalar.auth_service.dto.ForgotPasswordRequest;
+import br.com.gestao_hospitalar.auth_service.dto.RefreshRequest;
 import br.com.gestao_hospitalar.auth_service.dto.RegisterRequest;
+import br.com.gestao_hospitalar.auth_service.dto.RevogadosResponse;
+import br.com.gestao_hospitalar.auth_service.enums.UserType;
+import br.com.gestao_hospitalar.auth_service.exception.ApiException;
+import br.com.gestao_hospitalar.auth_service.security.JwtTokenProvider;
+import br.com.gestao_hospitalar.auth_service.security.LimitadorLogin;
+import br.com.gestao_hospitalar.auth_service.service.RevogacaoService;
+import br.com.gestao_hospitalar.auth_service.service.SessaoService;
 import br.com.gestao_hospitalar.auth_service.service.UserService;
 import br.com.gestao_hospitalar.auth_service.util.ResponseUtil;
+import io.micrometer.core.annotation.Timed;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@Timed(value = "http.controller", histogram = true)
 @RequestMapping("")
 public class AuthController {
 
   @Autowired
   private UserService userService;
 
+  @Autowired
+  private SessaoService sessaoService;
+
+  @Autowired
+  private RevogacaoService revogacaoService;
+
+  @Autowired
+  private JwtTokenProvider jwtTokenProvider;
+
+  @Autowired
+  private LimitadorLogin limitadorLogin;
+
   @PostMapping("/register")
   public ResponseEntity<ApiResponse<String>> registerUser(
     HttpServletRequest request,
@@ -36,11 +66,36 @@ public class AuthController {
     return ResponseEntity.status(201).body(response);
   }
 
+  // Integração de funcionários pelo RH; o api-gateway só repassa para ADMIN
+  @PostMapping("/register/lote")
+  public ResponseEntity<ApiResponse<CadastroLoteResponse>> registerUsers(
+    HttpServletRequest request,
+    @RequestHeader(value = "x-user-type", required = false) String userType,
+    @RequestBody @Valid CadastroLoteRequest req
+  ) {
+    if (!UserType.ADMIN.name().equals(userType)) {
+      throw new ApiException("Acesso negado", HttpStatus.FORBIDDEN);
+    }
+
+    CadastroLoteResponse resultado = userService.registerUsers(req);
+
+    ApiResponse<CadastroLoteResponse> response = ResponseUtil.ok(
+      request.getRequestURI(),
+      resultado.getCriados() +
+      " usuário(s) registrado(s). Senhas enviadas por e-mail",
+      resultado
+    );
+
+    return ResponseEntity.ok(response);
+  }
+
   @PostMapping("/login")
   public ResponseEntity<ApiResponse<AuthResponse>> login(
     HttpServletRequest request,
     @RequestBody @Valid AuthRequest authRequest
   ) {
+    limitadorLogin.verificar(authRequest.getIdentifier(), ipCliente(request));
+
     AuthResponse authResponse = userService.authenticate(authRequest);
 
     ApiResponse<AuthResponse> response = ResponseUtil.ok(
@@ -67,4 +122,96 @@ public class AuthController {
 
     return ResponseEntity.ok(response);
   }
+
+  @PostMapping("/refresh")
+  public ResponseEntity<ApiResponse<AuthResponse>> refresh(
+    HttpServletRequest request,
+    @RequestBody @Valid RefreshRequest req
+  ) {
+    AuthResponse authResponse = sessaoService.renovar(req.getRefreshToken());
+
+    ApiResponse<AuthResponse> response = ResponseUtil.ok(
+      request.getRequestURI(),
+      "Sessão renovada com sucesso",
+      authResponse
+    );
+
+    return ResponseEntity.ok(response);
+  }
+
+  @PostMapping("/logout")
+  public ResponseEntity<ApiResponse<Void>> logout(
+    HttpServletRequest request,
+    @RequestBody @Valid RefreshRequest req
+  ) {
+    sessaoService.encerrar(req.getRefreshToken());
+
+    ApiResponse<Void> response = ResponseUtil.ok(
+      request.getRequestURI(),
+      "Sessão encerrada",
+      null
+    );
+
+    return ResponseEntity.ok(response);
+  }
+
+  // Os cabeçalhos x-user-* são definidos pelo api-gateway a partir do token
+  // já validado
+  @PostMapping("/sessoes/{usuarioId}/revogar")
+  public ResponseEntity<ApiResponse<Integer>> revogarSessoes(
+    HttpServletRequest request,
+    @PathVariable UUID usuarioId,
+    @RequestHeader(value = "x-user-id", required = false) String userId,
+    @RequestHeader(value = "x-user-type", required = false) String userType
+  ) {
+    boolean admin = UserType.ADMIN.name().equals(userType);
+    if (!admin && !usuarioId.toString().equals(userId)) {
+      throw new ApiException("Acesso negado", HttpStatus.FORBIDDEN);
+    }
+
+    int sessoes = sessaoService.revogarTodas(usuarioId);
+
+    ApiResponse<Integer> response = ResponseUtil.ok(
+      request.getRequestURI(),
+      "Sessões revogadas",
+      sessoes
+    );
+
+    return ResponseEntity.ok(response);
+  }
+
+  // Consultado pelo api-gateway com If-None-Match; sem mudanças responde 304
+  @GetMapping("/revogados")
+  public ResponseEntity<RevogadosResponse> revogados(
+    @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
+  ) {
+    RevogacaoService.Snapshot snapshot = revogacaoService.getSnapshot();
+    if (snapshot.etag().equals(ifNoneMatch)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+        .eTag(snapshot.etag())
+        .build();
+    }
+    return ResponseEntity.ok()
+      .eTag(snapshot.etag())
+      .cacheControl(CacheControl.noCache())
+      .body(snapshot.conteudo());
+  }
+
+  // Chaves públicas para verificar tokens ES256, indexadas pelo kid
+  @GetMapping("/jwks")
+  public ResponseEntity<Map<String, List<Map<String, String>>>> jwks() {
+    return ResponseEntity.ok()
+      .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)))
+      .body(Map.of("keys", jwtTokenProvider.getChavesPublicas()));
+  }
+
+  // O api-gateway sobrescreve o X-Forwarded-For com o endereço do cliente;
+  // o último item é sempre o adicionado pelo proxy mais próximo
+  private static String ipCliente(HttpServletRequest request) {
+    String encaminhado = request.getHeader("X-Forwarded-For");
+    if (encaminhado == null || encaminhado.isBlank()) {
+      return request.getRemoteAddr();
+    }
+    return encaminhado.substring(encaminhado.lastIndexOf(',') + 1).strip();
+  }
 }
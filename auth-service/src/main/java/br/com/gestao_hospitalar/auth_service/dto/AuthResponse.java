@@ -7,4 +7,8 @@ import lombok.Data;
 @AllArgsConstructor
 public class AuthResponse {
     private String token;
+    // Opaco e de uso único: cada /refresh devolve um novo
+    private String refreshToken;
+    // Validade do token de acesso, em segundos
+    private long expiresIn;
 }
@@ -0,0 +1,15 @@
+package br.com.gestao_hospitalar.auth_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class CadastroLoteRequest {
+
+  @NotEmpty(message = "Informe ao menos um usuário")
+  @Size(max = 1000, message = "O lote aceita no máximo 1000 usuários")
+  private List<@Valid RegisterRequest> usuarios;
+}
@@ -0,0 +1,14 @@
+package br.com.gestao_hospitalar.auth_service.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CadastroLoteResponse {
+
+  private int criados;
+  // Na mesma ordem do pedido
+  private List<ResultadoCadastro> resultados;
+}
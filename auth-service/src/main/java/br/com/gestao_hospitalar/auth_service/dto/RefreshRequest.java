@@ -0,0 +1,11 @@
+package br.com.gestao_hospitalar.auth_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshRequest {
+
+  @NotBlank(message = "Refresh token é obrigatório")
+  private String refreshToken;
+}
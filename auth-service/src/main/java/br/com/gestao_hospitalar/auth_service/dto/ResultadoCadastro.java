@@ -0,0 +1,15 @@
+package br.com.gestao_hospitalar.auth_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ResultadoCadastro {
+
+  private String cpf;
+  private String email;
+  private boolean criado;
+  // Mesmas mensagens do cadastro individual ("E-mail já registrado"...)
+  private String erro;
+}
@@ -0,0 +1,20 @@
+package br.com.gestao_hospitalar.auth_service.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Snapshot do filtro de Bloom dos jti revogados, consumido pelo api-gateway.
+ * {@code bits} é o bitset em Base64.
+ */
+@Data
+@AllArgsConstructor
+public class RevogadosResponse {
+
+  private int m;
+  private int k;
+  private String bits;
+  private int quantidade;
+  private LocalDateTime geradoEm;
+}
@@ -0,0 +1,42 @@
+package br.com.gestao_hospitalar.auth_service.entity;
+
+import br.com.gestao_hospitalar.auth_service.enums.EmailStatus;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "email_outbox")
+public class EmailOutbox {
+
+  @Id
+  @GeneratedValue
+  private UUID id;
+
+  @Column(nullable = false)
+  private String destinatario;
+
+  @Column(nullable = false)
+  private String assunto;
+
+  @Column(nullable = false, columnDefinition = "TEXT")
+  private String corpo;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private EmailStatus status;
+
+  @Column(nullable = false)
+  private int tentativas;
+
+  @Column(name = "proxima_tentativa", nullable = false)
+  private LocalDateTime proximaTentativa;
+
+  @Column(name = "ultimo_erro", length = 1000)
+  private String ultimoErro;
+
+  @Column(name = "criado_em", nullable = false)
+  private LocalDateTime criadoEm;
+}
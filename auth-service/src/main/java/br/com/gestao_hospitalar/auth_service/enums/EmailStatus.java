@@ -0,0 +1,6 @@
+package br.com.gestao_hospitalar.auth_service.enums;
+
+public enum EmailStatus {
+  PENDENTE,
+  FALHOU,
+}
@@ -3,6 +3,7 @@ package br.com.gestao_hospitalar.auth_service.exception;
 import jakarta.validation.ConstraintViolationException;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -23,6 +24,20 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(body, status);
   }
 
+  @ExceptionHandler(LimiteExcedidoException.class)
+  public ResponseEntity<Object> handleLimiteExcedido(
+    LimiteExcedidoException ex
+  ) {
+    Map<String, Object> body = new HashMap<>();
+    body.put("error", ex.getMessage());
+    return ResponseEntity.status(ex.getStatus())
+      .header(
+        HttpHeaders.RETRY_AFTER,
+        String.valueOf(ex.getRetryAfterSegundos())
+      )
+      .body(body);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<Object> handleValidationException(
     MethodArgumentNotValidException ex
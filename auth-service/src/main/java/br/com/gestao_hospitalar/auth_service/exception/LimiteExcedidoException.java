@@ -0,0 +1,26 @@
+package br.com.gestao_hospitalar.auth_service.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Requisição recusada por limite de taxa ou de carga. O
+ * {@link GlobalExceptionHandler} devolve {@code retryAfterSegundos} no
+ * cabeçalho Retry-After.
+ */
+public class LimiteExcedidoException extends ApiException {
+
+  private final long retryAfterSegundos;
+
+  public LimiteExcedidoException(
+    String message,
+    HttpStatus status,
+    long retryAfterSegundos
+  ) {
+    super(message, status);
+    this.retryAfterSegundos = retryAfterSegundos;
+  }
+
+  public long getRetryAfterSegundos() {
+    return retryAfterSegundos;
+  }
+}
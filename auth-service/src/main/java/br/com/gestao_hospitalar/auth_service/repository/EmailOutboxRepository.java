@@ -0,0 +1,25 @@
+package br.com.gestao_hospitalar.auth_service.repository;
+
+import br.com.gestao_hospitalar.auth_service.entity.EmailOutbox;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, UUID> {
+    /**
+     * Bloqueia o próximo lote de e-mails pendentes. SKIP LOCKED permite que
+     * várias instâncias do serviço despachem em paralelo sem enviar o mesmo
+     * e-mail duas vezes.
+     */
+    @Query(
+        value = "SELECT * FROM email_outbox " +
+                "WHERE status = 'PENDENTE' AND proxima_tentativa <= :agora " +
+                "ORDER BY proxima_tentativa LIMIT :limite " +
+                "FOR UPDATE SKIP LOCKED",
+        nativeQuery = true
+    )
+    List<EmailOutbox> lockPendentes(@Param("agora") LocalDateTime agora, @Param("limite") int limite);
+}
@@ -0,0 +1,93 @@
+package br.com.gestao_hospitalar.auth_service.repository;
+
+import br.com.gestao_hospitalar.auth_service.entity.User;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inserções de usuários em um único statement, sem consulta prévia. A
+ * unicidade fica a cargo do banco: conflitos de CPF ou e-mail não inserem a
+ * linha e são reportados pela contagem de linhas afetadas.
+ */
+@Repository
+public class UserJdbcRepository {
+
+  // O NOT EXISTS cobre e-mails antigos que diferem só em maiúsculas, que a
+  // constraint UNIQUE(email) não pega
+  private static final String INSERIR_SE_NOVO =
+    "INSERT INTO users (id, cpf, email, password, type) " +
+    "SELECT ?, ?, ?, ?, ? " +
+    "WHERE NOT EXISTS (SELECT 1 FROM users WHERE lower(email) = ?) " +
+    "ON CONFLICT DO NOTHING";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public UserJdbcRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * @return {@code false} se o CPF ou o e-mail já estiverem cadastrados
+   */
+  public boolean inserirSeNovo(User user) {
+    return jdbcTemplate.update(con -> {
+      PreparedStatement ps = con.prepareStatement(INSERIR_SE_NOVO);
+      preencher(ps, user);
+      return ps;
+    }) == 1;
+  }
+
+  /**
+   * Insere o lote com JDBC batching.
+   *
+   * @return para cada usuário, na ordem recebida, se foi inserido
+   */
+  public boolean[] inserirTodosSeNovos(List<User> users, int tamanhoBatch) {
+    boolean[] inseridos = new boolean[users.size()];
+    int[][] contagens = jdbcTemplate.batchUpdate(
+      INSERIR_SE_NOVO,
+      users,
+      tamanhoBatch,
+      this::preencher
+    );
+    int i = 0;
+    for (int[] batch : contagens) {
+      for (int contagem : batch) {
+        inseridos[i++] = contagem == 1;
+      }
+    }
+    return inseridos;
+  }
+
+  /** Quais dos e-mails (já normalizados) pertencem a usuários cadastrados. */
+  public Set<String> emailsCadastrados(List<String> emails) {
+    Set<String> cadastrados = new HashSet<>();
+    jdbcTemplate.query(
+      con -> {
+        PreparedStatement ps = con.prepareStatement(
+          "SELECT lower(email) FROM users WHERE lower(email) = ANY(?)"
+        );
+        ps.setArray(1, con.createArrayOf("varchar", emails.toArray()));
+        return ps;
+      },
+      (RowCallbackHandler) rs -> cadastrados.add(rs.getString(1))
+    );
+    return cadastrados;
+  }
+
+  private void preencher(PreparedStatement ps, User user)
+    throws SQLException {
+    ps.setObject(1, user.getId());
+    ps.setString(2, user.getCpf());
+    ps.setString(3, user.getEmail());
+    ps.setString(4, user.getPassword());
+    ps.setString(5, user.getType().name());
+    ps.setString(6, user.getEmail());
+  }
+}
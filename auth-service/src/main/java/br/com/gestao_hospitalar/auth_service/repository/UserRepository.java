@@ -2,12 +2,23 @@ package br.com.gestao_hospitalar.auth_service.repository;
 
 import br.com.gestao_hospitalar.auth_service.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
+import java.util.UUID;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     Optional<User> findByCpf(String cpf);
     boolean existsByEmail(String email);
     boolean existsByCpf(String cpf);
+
+    /**
+     * Busca pelo e-mail já normalizado (minúsculo), usando o índice em
+     * lower(email). O LIMIT protege contra cadastros antigos que diferem só
+     * em maiúsculas.
+     */
+    @Query(value = "SELECT * FROM users WHERE lower(email) = :email LIMIT 1", nativeQuery = true)
+    Optional<User> findByEmailNormalizado(@Param("email") String email);
 }
@@ -0,0 +1,62 @@
+package br.com.gestao_hospitalar.auth_service.security;
+
+/**
+ * Token buckets em uma tabela de tamanho fixo. A chave é espalhada em uma
+ * das {@code faixas} e chaves que colidem dividem o mesmo balde, o que só
+ * deixa o limite mais conservador. Assim a memória não cresce com a
+ * quantidade de IPs ou identificadores diferentes de um ataque, e não há
+ * alocação por tentativa.
+ *
+ * <p>Cada faixa é protegida por uma de {@code TRAVAS} travas, para que
+ * logins de chaves diferentes raramente disputem a mesma.
+ */
+final class BaldesDeTokens {
+
+  private static final int TRAVAS = 256;
+
+  private final double capacidade;
+  private final double tokensPorNano;
+  private final int mascara;
+  private final double[] tokens;
+  private final long[] atualizadoEm;
+  private final Object[] travas = new Object[TRAVAS];
+
+  BaldesDeTokens(int faixas, double capacidade, double recargaPorMinuto) {
+    int tamanho = Integer.highestOneBit(Math.max(faixas, TRAVAS));
+    this.capacidade = capacidade;
+    this.tokensPorNano = recargaPorMinuto / 60e9;
+    this.mascara = tamanho - 1;
+    this.tokens = new double[tamanho];
+    this.atualizadoEm = new long[tamanho];
+    for (int i = 0; i < TRAVAS; i++) {
+      travas[i] = new Object();
+    }
+  }
+
+  /**
+   * Consome um token do balde da chave.
+   *
+   * @return 0 se havia token; senão, quantos nanos faltam para o próximo
+   */
+  long consumir(String chave, long agora) {
+    int h = chave.hashCode();
+    int faixa = (h ^ (h >>> 16)) & mascara;
+
+    synchronized (travas[faixa & (TRAVAS - 1)]) {
+      double disponivel = atualizadoEm[faixa] == 0
+        ? capacidade
+        : Math.min(
+          capacidade,
+          tokens[faixa] + (agora - atualizadoEm[faixa]) * tokensPorNano
+        );
+      atualizadoEm[faixa] = agora;
+
+      if (disponivel >= 1) {
+        tokens[faixa] = disponivel - 1;
+        return 0;
+      }
+      tokens[faixa] = disponivel;
+      return (long) Math.ceil((1 - disponivel) / tokensPorNano);
+    }
+  }
+}
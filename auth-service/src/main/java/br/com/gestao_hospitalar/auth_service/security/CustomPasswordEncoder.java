@@ -1,62 +1,63 @@
 package br.com.gestao_hospitalar.auth_service.security;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.MessageDigest;
-import java.security.SecureRandom;
-import java.util.Base64;
+import java.util.List;
 
 @Component
 public class CustomPasswordEncoder {
 
-    private static final int SALT_LENGTH = 16; // 128 bits
+    public static final int DEFAULT_PBKDF2_ITERATIONS = 210_000;
 
-    public String encodeWithSHA256(String rawPassword) {
-        // Gera salt aleatório em bytes
-        byte[] saltBytes = new byte[SALT_LENGTH];
-        new SecureRandom().nextBytes(saltBytes);
-        String saltBase64 = Base64.getEncoder().encodeToString(saltBytes);
+    // Algoritmo usado para novas senhas
+    private final PasswordHashAlgorithm current;
 
-        // Aplica SHA-256 com o salt
-        String hash = hashWithSHA256(rawPassword, saltBase64);
+    // Algoritmos aceitos na verificação, incluindo formatos antigos
+    private final List<PasswordHashAlgorithm> algorithms;
 
-        // Armazena como "salt:hash"
-        return saltBase64 + ":" + hash;
+    public CustomPasswordEncoder() {
+        this(DEFAULT_PBKDF2_ITERATIONS);
     }
 
-    public boolean matches(String rawPassword, String encodedPassword) {
-        String[] parts = encodedPassword.split(":");
-        if (parts.length != 2) return false;
-
-        String saltBase64 = parts[0];
-        String storedHash = parts[1];
-
-        String computedHash = hashWithSHA256(rawPassword, saltBase64);
-
-        return storedHash.equals(computedHash);
+    @Autowired
+    public CustomPasswordEncoder(
+        @Value("${password.pbkdf2.iterations:" + DEFAULT_PBKDF2_ITERATIONS + "}") int iterations
+    ) {
+        this.current = new Pbkdf2PasswordHash(iterations);
+        this.algorithms = List.of(current, new LegacySha256PasswordHash());
     }
 
-    private String hashWithSHA256(String password, String saltBase64) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-
-            // Decodifica salt de Base64 para bytes
-            byte[] saltBytes = Base64.getDecoder().decode(saltBase64);
-            byte[] passwordBytes = password.getBytes("UTF-8");
-
-            // Concatena salt + password em bytes
-            byte[] saltedPasswordBytes = new byte[saltBytes.length + passwordBytes.length];
-            System.arraycopy(saltBytes, 0, saltedPasswordBytes, 0, saltBytes.length);
-            System.arraycopy(passwordBytes, 0, saltedPasswordBytes, saltBytes.length, passwordBytes.length);
+    public String encode(String rawPassword) {
+        return current.encode(rawPassword);
+    }
 
-            // Calcula hash SHA-256
-            byte[] hashBytes = digest.digest(saltedPasswordBytes);
+    @Timed(value = "senha.matches", histogram = true)
+    public boolean matches(String rawPassword, String encodedPassword) {
+        PasswordHashAlgorithm algorithm = algorithmFor(encodedPassword);
+        return algorithm != null && algorithm.matches(rawPassword, encodedPassword);
+    }
 
-            // Retorna hash codificado em Base64
-            return Base64.getEncoder().encodeToString(hashBytes);
+    /**
+     * Indica se a senha armazenada deve ser regravada com o algoritmo e o
+     * custo atuais (formato "salt:hash" legado ou PBKDF2 com menos iterações).
+     */
+    public boolean needsRehash(String encodedPassword) {
+        PasswordHashAlgorithm algorithm = algorithmFor(encodedPassword);
+        return algorithm != current || current.needsRehash(encodedPassword);
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao gerar hash SHA-256", e);
+    private PasswordHashAlgorithm algorithmFor(String encodedPassword) {
+        if (encodedPassword == null) {
+            return null;
+        }
+        for (PasswordHashAlgorithm algorithm : algorithms) {
+            if (algorithm.supports(encodedPassword)) {
+                return algorithm;
+            }
         }
+        return null;
     }
 }
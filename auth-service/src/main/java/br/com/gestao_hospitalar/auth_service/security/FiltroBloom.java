@@ -0,0 +1,107 @@
+package br.com.gestao_hospitalar.auth_service.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Filtro de Bloom imutável sobre os jti revogados. Responde "talvez
+ * revogado" ou "certamente não revogado" com {@code k} leituras de bit, sem
+ * acesso ao banco.
+ *
+ * <p>As posições vêm de duas FNV-1a de 32 bits combinadas por hashing duplo
+ * ({@code h1 + i * h2}, aritmética de 32 bits sem sinal). O api-gateway
+ * repete exatamente a mesma conta em {@code src/revocation.js}; qualquer
+ * mudança aqui precisa ser feita lá também.
+ */
+public final class FiltroBloom {
+
+  private static final int FNV_PRIMO = 0x01000193;
+  private static final int FNV_BASE_1 = 0x811c9dc5;
+  private static final int FNV_BASE_2 = 0x050c5d1f;
+  // Mesmo vazio o filtro tem um tamanho mínimo, para não mudar de formato a
+  // cada poucas revogações
+  private static final int MINIMO_ELEMENTOS = 1024;
+
+  private final byte[] bits;
+  private final int m;
+  private final int k;
+
+  private FiltroBloom(byte[] bits, int m, int k) {
+    this.bits = bits;
+    this.m = m;
+    this.k = k;
+  }
+
+  /**
+   * Dimensiona o filtro para a quantidade de elementos e a taxa de falso
+   * positivo desejada e insere todos.
+   */
+  public static FiltroBloom de(
+    Collection<String> elementos,
+    double falsoPositivo
+  ) {
+    int n = Math.max(elementos.size(), MINIMO_ELEMENTOS);
+    double ln2 = Math.log(2);
+    long mCalculado = (long) Math.ceil(
+      (-n * Math.log(falsoPositivo)) / (ln2 * ln2)
+    );
+    // Arredonda para múltiplo de 8: o bitset é serializado em bytes
+    int m = (int) Math.min(Integer.MAX_VALUE - 7, (mCalculado + 7) & ~7L);
+    int k = Math.max(1, (int) Math.round(((double) m / n) * ln2));
+
+    FiltroBloom filtro = new FiltroBloom(new byte[m / 8], m, k);
+    for (String elemento : elementos) {
+      filtro.adicionar(elemento);
+    }
+    return filtro;
+  }
+
+  public boolean talvezContenha(String elemento) {
+    byte[] dados = elemento.getBytes(StandardCharsets.UTF_8);
+    int h1 = fnv1a(dados, FNV_BASE_1);
+    int h2 = fnv1a(dados, FNV_BASE_2) | 1;
+    for (int i = 0; i < k; i++) {
+      int posicao = posicao(h1, h2, i);
+      if ((bits[posicao >>> 3] & (1 << (posicao & 7))) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int getM() {
+    return m;
+  }
+
+  public int getK() {
+    return k;
+  }
+
+  /** Cópia do bitset; o bit {@code j} fica no byte {@code j / 8}, máscara {@code 1 << (j % 8)}. */
+  public byte[] getBits() {
+    return bits.clone();
+  }
+
+  private void adicionar(String elemento) {
+    byte[] dados = elemento.getBytes(StandardCharsets.UTF_8);
+    int h1 = fnv1a(dados, FNV_BASE_1);
+    int h2 = fnv1a(dados, FNV_BASE_2) | 1;
+    for (int i = 0; i < k; i++) {
+      int posicao = posicao(h1, h2, i);
+      bits[posicao >>> 3] |= (byte) (1 << (posicao & 7));
+    }
+  }
+
+  private int posicao(int h1, int h2, int i) {
+    return (int) (Integer.toUnsignedLong(h1 + i * h2) % m);
+  }
+
+  static int fnv1a(byte[] dados, int base) {
+    int hash = base;
+    for (byte b : dados) {
+      hash ^= b & 0xff;
+      hash *= FNV_PRIMO;
+    }
+    return hash;
+  }
+}
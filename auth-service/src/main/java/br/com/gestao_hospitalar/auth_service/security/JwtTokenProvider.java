@@ -1,37 +1,240 @@
 package br.com.gestao_hospitalar.auth_service.security;
 
 import br.com.gestao_hospitalar.auth_service.entity.User;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import java.security.Key;
-import java.util.Date;
+import jakarta.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import javax.crypto.Mac;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Emite os tokens de acesso. Tudo o que não muda entre tokens é preparado
+ * uma vez na inicialização: a chave, o {@link Mac} (clonado a cada token) e
+ * o cabeçalho já codificado em Base64URL, com o {@code kid} da chave atual.
+ * Por token só o payload é serializado, direto num {@link StringBuilder},
+ * sem passar pelo builder do jjwt nem pelo Jackson.
+ *
+ * <p>Em {@code jwt.algoritmo=ES256} o token é assinado com a chave privada
+ * EC e os verificadores só precisam das chaves públicas, publicadas em
+ * {@code /jwks} junto com as anteriores ainda em rotação.
+ */
 @Component
 public class JwtTokenProvider {
 
+  private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder()
+    .withoutPadding();
+
   @Value("${jwt.secret}")
   String jwtSecret;
 
   @Value("${jwt.expiration}")
   long jwtExpirationInMs;
 
-  private Key getSigningKey() {
-    return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+  @Value("${jwt.algoritmo:HS256}")
+  String algoritmo = "HS256";
+
+  @Value("${jwt.kid:hs-1}")
+  String kid = "hs-1";
+
+  // PKCS#8 (privada) e X.509 (pública) em Base64, sem os cabeçalhos PEM
+  @Value("${jwt.es256.chave-privada:}")
+  String chavePrivadaEs256 = "";
+
+  @Value("${jwt.es256.chave-publica:}")
+  String chavePublicaEs256 = "";
+
+  // Chaves públicas que ainda validam tokens emitidos antes da rotação, no
+  // formato kid=chave,kid=chave
+  @Value("${jwt.es256.chaves-anteriores:}")
+  String chavesAnterioresEs256 = "";
+
+  private byte[] cabecalho;
+  private Mac hmac;
+  private PrivateKey chavePrivada;
+  private List<Map<String, String>> chavesPublicas = List.of();
+
+  @PostConstruct
+  public void init() {
+    try {
+      switch (algoritmo) {
+        case "HS256" -> {
+          hmac = Mac.getInstance("HmacSHA256");
+          hmac.init(Keys.hmacShaKeyFor(jwtSecret.getBytes()));
+        }
+        case "ES256" -> {
+          KeyFactory fabrica = KeyFactory.getInstance("EC");
+          chavePrivada = fabrica.generatePrivate(
+            new PKCS8EncodedKeySpec(Base64.getDecoder().decode(chavePrivadaEs256))
+          );
+          List<Map<String, String>> chaves = new ArrayList<>();
+          chaves.add(jwk(kid, chavePublicaEs256, fabrica));
+          for (String anterior : chavesAnterioresEs256.split(",")) {
+            String[] partes = anterior.strip().split("=", 2);
+            if (partes.length == 2) {
+              chaves.add(jwk(partes[0].strip(), partes[1].strip(), fabrica));
+            }
+          }
+          chavesPublicas = List.copyOf(chaves);
+        }
+        default -> throw new IllegalStateException(
+          "jwt.algoritmo não suportado: " + algoritmo
+        );
+      }
+    } catch (GeneralSecurityException | IllegalArgumentException e) {
+      throw new IllegalStateException(
+        "Chave inválida para " + algoritmo + " (kid " + kid + ")",
+        e
+      );
+    }
+
+    StringBuilder json = new StringBuilder("{\"alg\":\"")
+      .append(algoritmo)
+      .append("\",\"typ\":\"JWT\",\"kid\":");
+    texto(json, kid);
+    json.append('}');
+    cabecalho = (BASE64URL.encodeToString(
+        json.toString().getBytes(StandardCharsets.UTF_8)
+      ) +
+      ".").getBytes(StandardCharsets.US_ASCII);
   }
 
   public String generateToken(User user) {
-    return Jwts.builder()
-      .setSubject(user.getId().toString())
-      .claim("email", user.getEmail())
-      .claim("cpf", user.getCpf())
-      .claim("type", user.getType())
-      .setIssuedAt(new Date())
-      .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMs))
-      .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-      .compact();
+    return generateToken(user, UUID.randomUUID(), Instant.now());
+  }
+
+  /**
+   * Emite o token de acesso com o {@code jti} informado. O jti identifica o
+   * token na lista de revogação, então quem chama precisa guardá-lo junto da
+   * sessão.
+   */
+  public String generateToken(User user, UUID jti, Instant emitidoEm) {
+    StringBuilder json = new StringBuilder(256)
+      .append("{\"jti\":\"")
+      .append(jti)
+      .append("\",\"sub\":\"")
+      .append(user.getId())
+      .append("\",\"email\":");
+    texto(json, user.getEmail());
+    json.append(",\"cpf\":");
+    texto(json, user.getCpf());
+    json
+      .append(",\"type\":\"")
+      .append(user.getType().name())
+      .append("\",\"iat\":")
+      .append(emitidoEm.getEpochSecond())
+      .append(",\"exp\":")
+      .append(expiraEm(emitidoEm).getEpochSecond())
+      .append('}');
+
+    byte[] payload = BASE64URL.encode(
+      json.toString().getBytes(StandardCharsets.UTF_8)
+    );
+    byte[] conteudo = new byte[cabecalho.length + payload.length];
+    System.arraycopy(cabecalho, 0, conteudo, 0, cabecalho.length);
+    System.arraycopy(payload, 0, conteudo, cabecalho.length, payload.length);
+
+    return (
+      new String(conteudo, StandardCharsets.US_ASCII) +
+      "." +
+      BASE64URL.encodeToString(assinar(conteudo))
+    );
+  }
+
+  public Instant expiraEm(Instant emitidoEm) {
+    return emitidoEm.plusMillis(jwtExpirationInMs);
+  }
+
+  public long getJwtExpirationInMs() {
+    return jwtExpirationInMs;
+  }
+
+  /** Chaves públicas no formato JWK; vazio em HS256, que não tem chave pública. */
+  public List<Map<String, String>> getChavesPublicas() {
+    return chavesPublicas;
+  }
+
+  private byte[] assinar(byte[] conteudo) {
+    try {
+      if (hmac != null) {
+        Mac mac = (Mac) hmac.clone();
+        return mac.doFinal(conteudo);
+      }
+      // Formato P1363 (r||s) é o que o JWS exige; o padrão do Java é DER
+      Signature assinatura = Signature.getInstance(
+        "SHA256withECDSAinP1363Format"
+      );
+      assinatura.initSign(chavePrivada);
+      assinatura.update(conteudo);
+      return assinatura.sign();
+    } catch (CloneNotSupportedException | GeneralSecurityException e) {
+      throw new IllegalStateException("Falha ao assinar token", e);
+    }
+  }
+
+  private static Map<String, String> jwk(
+    String kid,
+    String chavePublica,
+    KeyFactory fabrica
+  ) throws GeneralSecurityException {
+    ECPublicKey chave = (ECPublicKey) fabrica.generatePublic(
+      new X509EncodedKeySpec(Base64.getDecoder().decode(chavePublica))
+    );
+    Map<String, String> jwk = new LinkedHashMap<>();
+    jwk.put("kty", "EC");
+    jwk.put("crv", "P-256");
+    jwk.put("alg", "ES256");
+    jwk.put("use", "sig");
+    jwk.put("kid", kid);
+    jwk.put("x", coordenada(chave.getW().getAffineX()));
+    jwk.put("y", coordenada(chave.getW().getAffineY()));
+    return jwk;
+  }
+
+  // Coordenada da curva P-256 com exatamente 32 bytes, sem sinal
+  private static String coordenada(BigInteger valor) {
+    byte[] bytes = valor.toByteArray();
+    byte[] fixo = new byte[32];
+    int copiar = Math.min(bytes.length, 32);
+    System.arraycopy(bytes, bytes.length - copiar, fixo, 32 - copiar, copiar);
+    return BASE64URL.encodeToString(fixo);
+  }
+
+  private static void texto(StringBuilder json, String valor) {
+    if (valor == null) {
+      json.append("null");
+      return;
+    }
+    json.append('"');
+    for (int i = 0; i < valor.length(); i++) {
+      char c = valor.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        default -> {
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+    json.append('"');
   }
 }
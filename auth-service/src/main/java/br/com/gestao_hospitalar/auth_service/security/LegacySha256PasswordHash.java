@@ -0,0 +1,77 @@
+package br.com.gestao_hospitalar.auth_service.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Formato original "salt:hash": SHA-256 de uma rodada sobre salt + senha,
+ * ambos em Base64. Mantido apenas para validar senhas antigas, que são
+ * migradas para PBKDF2 no login.
+ */
+public class LegacySha256PasswordHash implements PasswordHashAlgorithm {
+
+  private static final int SALT_LENGTH = 16; // 128 bits
+
+  private static final ThreadLocal<MessageDigest> SHA256 =
+    ThreadLocal.withInitial(() -> {
+      try {
+        return MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("SHA-256 indisponível", e);
+      }
+    });
+
+  private static final ThreadLocal<SecureRandom> RANDOM =
+    ThreadLocal.withInitial(SecureRandom::new);
+
+  @Override
+  public boolean supports(String encodedPassword) {
+    return encodedPassword != null && encodedPassword.indexOf(':') > 0;
+  }
+
+  @Override
+  public String encode(String rawPassword) {
+    byte[] salt = new byte[SALT_LENGTH];
+    RANDOM.get().nextBytes(salt);
+    Base64.Encoder encoder = Base64.getEncoder();
+    return (
+      encoder.encodeToString(salt) +
+      ":" +
+      encoder.encodeToString(hash(rawPassword, salt))
+    );
+  }
+
+  @Override
+  public boolean matches(String rawPassword, String encodedPassword) {
+    int separador = encodedPassword.indexOf(':');
+    if (separador <= 0 || separador != encodedPassword.lastIndexOf(':')) {
+      return false;
+    }
+
+    try {
+      Base64.Decoder decoder = Base64.getDecoder();
+      byte[] salt = decoder.decode(encodedPassword.substring(0, separador));
+      byte[] storedHash = decoder.decode(
+        encodedPassword.substring(separador + 1)
+      );
+      return MessageDigest.isEqual(storedHash, hash(rawPassword, salt));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean needsRehash(String encodedPassword) {
+    return true;
+  }
+
+  private byte[] hash(String password, byte[] salt) {
+    MessageDigest digest = SHA256.get();
+    digest.reset();
+    digest.update(salt);
+    return digest.digest(password.getBytes(StandardCharsets.UTF_8));
+  }
+}
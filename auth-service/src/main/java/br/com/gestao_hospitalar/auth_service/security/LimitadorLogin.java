@@ -0,0 +1,108 @@
+package br.com.gestao_hospitalar.auth_service.security;
+
+import br.com.gestao_hospitalar.auth_service.exception.LimiteExcedidoException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limite de tentativas de login por identificador e por IP do cliente,
+ * checado antes de qualquer consulta ao banco ou hash de senha. Uma onda de
+ * credential stuffing é recusada em microssegundos com 429 e Retry-After,
+ * sem roubar CPU dos logins legítimos.
+ *
+ * <p>O balde por IP segura um cliente testando muitas contas; o balde por
+ * identificador segura muitos IPs testando a mesma conta.
+ */
+@Component
+public class LimitadorLogin implements MeterBinder {
+
+  private final BaldesDeTokens porIdentificador;
+  private final BaldesDeTokens porIp;
+
+  private final LongAdder atendidas = new LongAdder();
+  private final LongAdder limitadasPorIdentificador = new LongAdder();
+  private final LongAdder limitadasPorIp = new LongAdder();
+
+  public LimitadorLogin(
+    @Value("${login.limite.faixas:65536}") int faixas,
+    @Value(
+      "${login.limite.identificador.capacidade:10}"
+    ) double capacidadeIdentificador,
+    @Value(
+      "${login.limite.identificador.recarga-por-minuto:6}"
+    ) double recargaIdentificador,
+    @Value("${login.limite.ip.capacidade:60}") double capacidadeIp,
+    @Value("${login.limite.ip.recarga-por-minuto:60}") double recargaIp
+  ) {
+    this.porIdentificador = new BaldesDeTokens(
+      faixas,
+      capacidadeIdentificador,
+      recargaIdentificador
+    );
+    this.porIp = new BaldesDeTokens(faixas, capacidadeIp, recargaIp);
+  }
+
+  /**
+   * Consome uma tentativa do IP e do identificador.
+   *
+   * @throws LimiteExcedidoException (429) se algum dos dois estiver esgotado
+   */
+  public void verificar(String identificador, String ip) {
+    long agora = System.nanoTime();
+
+    long esperaIp = porIp.consumir(ip, agora);
+    if (esperaIp > 0) {
+      limitadasPorIp.increment();
+      throw limitado(esperaIp);
+    }
+
+    String chave = identificador == null
+      ? ""
+      : identificador.strip().toLowerCase(Locale.ROOT);
+    long esperaIdentificador = porIdentificador.consumir(chave, agora);
+    if (esperaIdentificador > 0) {
+      limitadasPorIdentificador.increment();
+      throw limitado(esperaIdentificador);
+    }
+
+    atendidas.increment();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    contador(registry, "atendida", "", atendidas);
+    contador(registry, "limitada", "ip", limitadasPorIp);
+    contador(registry, "limitada", "identificador", limitadasPorIdentificador);
+  }
+
+  private static void contador(
+    MeterRegistry registry,
+    String resultado,
+    String motivo,
+    LongAdder valor
+  ) {
+    FunctionCounter.builder(
+      "auth.login.tentativas",
+      valor,
+      LongAdder::sum
+    )
+      .tag("resultado", resultado)
+      .tag("motivo", motivo)
+      .description("Tentativas de login atendidas e recusadas pelo limite")
+      .register(registry);
+  }
+
+  private static LimiteExcedidoException limitado(long esperaNanos) {
+    return new LimiteExcedidoException(
+      "Muitas tentativas de login, tente novamente em instantes",
+      HttpStatus.TOO_MANY_REQUESTS,
+      Math.max(1, (esperaNanos + 999_999_999) / 1_000_000_000)
+    );
+  }
+}
@@ -0,0 +1,80 @@
+package br.com.gestao_hospitalar.auth_service.security;
+
+/**
+ * Limite de tarefas simultâneas que se ajusta pela latência (AIMD). Enquanto
+ * a latência observada fica perto da menor já vista, o limite sobe devagar;
+ * quando passa de {@code tolerancia} vezes a menor, as tarefas estão
+ * esperando na fila em vez de executar e o limite cai 10%.
+ *
+ * <p>A menor latência é reamostrada a cada {@code AMOSTRAS_POR_JANELA}
+ * tarefas, para acompanhar mudanças de custo (outro número de iterações do
+ * PBKDF2, outra máquina).
+ */
+final class LimiteAdaptativo {
+
+  private static final int AMOSTRAS_POR_JANELA = 1000;
+  private static final double REDUCAO = 0.9;
+
+  private final int minimo;
+  private final int maximo;
+  private final double tolerancia;
+
+  private double limite;
+  private int emUso;
+  private long menorLatencia = Long.MAX_VALUE;
+  private long amostras;
+
+  LimiteAdaptativo(int inicial, int minimo, int maximo, double tolerancia) {
+    this.minimo = minimo;
+    this.maximo = Math.max(minimo, maximo);
+    this.tolerancia = tolerancia;
+    this.limite = Math.max(minimo, Math.min(inicial, this.maximo));
+  }
+
+  synchronized boolean tentarAdquirir() {
+    if (emUso >= (int) limite) {
+      return false;
+    }
+    emUso++;
+    return true;
+  }
+
+  /**
+   * @param latenciaNanos tempo desde a aquisição, incluindo a espera na fila
+   * @param concluida {@code false} se a tarefa estourou o tempo ou foi
+   *        recusada pelo executor
+   */
+  synchronized void liberar(long latenciaNanos, boolean concluida) {
+    boolean limitado = emUso >= (int) limite;
+    emUso--;
+
+    if (!concluida) {
+      reduzir();
+      return;
+    }
+    if (++amostras % AMOSTRAS_POR_JANELA == 0) {
+      menorLatencia = latenciaNanos;
+    } else {
+      menorLatencia = Math.min(menorLatencia, latenciaNanos);
+    }
+
+    if (latenciaNanos > menorLatencia * tolerancia) {
+      reduzir();
+    } else if (limitado) {
+      // Só cresce quando o limite de fato segurou tarefas
+      limite = Math.min(maximo, limite + 1 / limite);
+    }
+  }
+
+  synchronized int getLimite() {
+    return (int) limite;
+  }
+
+  synchronized int getEmUso() {
+    return emUso;
+  }
+
+  private void reduzir() {
+    limite = Math.max(minimo, limite * REDUCAO);
+  }
+}
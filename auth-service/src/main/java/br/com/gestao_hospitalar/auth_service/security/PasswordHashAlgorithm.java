@@ -0,0 +1,21 @@
+package br.com.gestao_hospitalar.auth_service.security;
+
+/**
+ * Algoritmo de hash de senha plugável no {@link CustomPasswordEncoder}.
+ */
+public interface PasswordHashAlgorithm {
+  /**
+   * Indica se a senha armazenada foi gerada por este algoritmo.
+   */
+  boolean supports(String encodedPassword);
+
+  String encode(String rawPassword);
+
+  boolean matches(String rawPassword, String encodedPassword);
+
+  /**
+   * Indica se a senha armazenada usa parâmetros mais fracos que os atuais
+   * e deve ser recalculada no próximo login bem-sucedido.
+   */
+  boolean needsRehash(String encodedPassword);
+}
@@ -0,0 +1,199 @@
+package br.com.gestao_hospitalar.auth_service.security;
+
+import br.com.gestao_hospitalar.auth_service.exception.ApiException;
+import br.com.gestao_hospitalar.auth_service.exception.LimiteExcedidoException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executa o hash e a verificação de senhas em um pool dedicado e limitado.
+ * Uma rajada de logins ocupa no máximo {@code threads} núcleos e, com a fila
+ * cheia, é recusada imediatamente em vez de prender as threads do Tomcat.
+ *
+ * <p>Antes da fila há um {@link LimiteAdaptativo}: quando a latência dos
+ * hashes sobe (tarefas esperando na fila), menos tarefas são admitidas e o
+ * excedente recebe 503 com Retry-After na hora, em vez de esperar até o
+ * timeout e atrasar também quem já estava na fila.
+ */
+@Component
+public class PasswordHashingPool implements MeterBinder {
+
+  private final CustomPasswordEncoder encoder;
+  private final ThreadPoolExecutor executor;
+  private final long timeoutMs;
+  private final LimiteAdaptativo limite;
+  private final LongAdder rejeitadas = new LongAdder();
+
+  public PasswordHashingPool(
+    CustomPasswordEncoder encoder,
+    @Value("${password.hashing.threads:0}") int threads,
+    @Value("${password.hashing.queue-capacity:200}") int queueCapacity,
+    @Value("${password.hashing.timeout-ms:5000}") long timeoutMs,
+    @Value("${password.hashing.limite.tolerancia:2.0}") double tolerancia
+  ) {
+    int poolSize = threads > 0
+      ? threads
+      : Runtime.getRuntime().availableProcessors();
+    AtomicInteger contador = new AtomicInteger();
+
+    this.encoder = encoder;
+    this.timeoutMs = timeoutMs;
+    // Começa em duas tarefas por thread e pode chegar a ocupar a fila toda
+    this.limite = new LimiteAdaptativo(
+      poolSize * 2,
+      poolSize,
+      poolSize + queueCapacity,
+      tolerancia
+    );
+    this.executor = new ThreadPoolExecutor(
+      poolSize,
+      poolSize,
+      0L,
+      TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity),
+      r -> {
+        Thread thread = new Thread(
+          r,
+          "password-hashing-" + contador.incrementAndGet()
+        );
+        thread.setDaemon(true);
+        return thread;
+      },
+      new ThreadPoolExecutor.AbortPolicy()
+    );
+  }
+
+  public boolean matches(String rawPassword, String encodedPassword) {
+    return execute(() -> encoder.matches(rawPassword, encodedPassword));
+  }
+
+  public String encode(String rawPassword) {
+    return execute(() -> encoder.encode(rawPassword));
+  }
+
+  /**
+   * Hash de várias senhas em paralelo, em ondas do tamanho do pool: o lote
+   * usa todos os threads de hash, mas nunca tem mais tarefas pendentes do
+   * que threads, deixando a fila livre para os logins.
+   */
+  public List<String> encodeAll(List<String> rawPasswords) {
+    List<String> hashes = new ArrayList<>(rawPasswords.size());
+    int onda = executor.getMaximumPoolSize();
+    for (int inicio = 0; inicio < rawPasswords.size(); inicio += onda) {
+      List<Future<String>> futures = new ArrayList<>(onda);
+      for (String senha : rawPasswords.subList(
+        inicio,
+        Math.min(inicio + onda, rawPasswords.size())
+      )) {
+        futures.add(enviar(() -> encoder.encode(senha)));
+      }
+      for (Future<String> future : futures) {
+        hashes.add(aguardar(future));
+      }
+    }
+    return hashes;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty())
+      .bindTo(registry);
+    Gauge.builder(
+      "password.hashing.limite",
+      limite,
+      LimiteAdaptativo::getLimite
+    )
+      .description("Hashes simultâneos admitidos pelo limite adaptativo")
+      .register(registry);
+    Gauge.builder(
+      "password.hashing.em.uso",
+      limite,
+      LimiteAdaptativo::getEmUso
+    ).register(registry);
+    FunctionCounter.builder(
+      "password.hashing.rejeitadas",
+      rejeitadas,
+      LongAdder::sum
+    )
+      .description("Hashes recusados por sobrecarga (limite ou fila cheia)")
+      .register(registry);
+  }
+
+  private <T> T execute(Callable<T> tarefa) {
+    if (!limite.tentarAdquirir()) {
+      rejeitadas.increment();
+      throw ocupado();
+    }
+    long inicio = System.nanoTime();
+    boolean concluida = false;
+    try {
+      T resultado = aguardar(enviar(tarefa));
+      concluida = true;
+      return resultado;
+    } finally {
+      limite.liberar(System.nanoTime() - inicio, concluida);
+    }
+  }
+
+  private <T> Future<T> enviar(Callable<T> tarefa) {
+    try {
+      return executor.submit(tarefa);
+    } catch (RejectedExecutionException e) {
+      rejeitadas.increment();
+      throw ocupado();
+    }
+  }
+
+  private static LimiteExcedidoException ocupado() {
+    return new LimiteExcedidoException(
+      "Servidor ocupado, tente novamente em instantes",
+      HttpStatus.SERVICE_UNAVAILABLE,
+      1
+    );
+  }
+
+  private <T> T aguardar(Future<T> future) {
+    try {
+      return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      throw new ApiException(
+        "Tempo esgotado ao validar senha",
+        HttpStatus.SERVICE_UNAVAILABLE
+      );
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ApiException(
+        "Operação interrompida",
+        HttpStatus.SERVICE_UNAVAILABLE
+      );
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Erro ao processar senha", e.getCause());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
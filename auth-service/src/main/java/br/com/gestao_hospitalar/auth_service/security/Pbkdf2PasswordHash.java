@@ -0,0 +1,123 @@
+package br.com.gestao_hospitalar.auth_service.security;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PBKDF2-HMAC-SHA256 com custo configurável. Formato armazenado:
+ * {@code $pbkdf2-sha256$<iterações>$<salt base64>$<hash base64>}, o que
+ * permite aumentar o custo sem invalidar senhas já gravadas.
+ */
+public class Pbkdf2PasswordHash implements PasswordHashAlgorithm {
+
+  static final String PREFIX = "$pbkdf2-sha256$";
+
+  private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+  private static final int SALT_LENGTH = 16; // 128 bits
+  private static final int HASH_LENGTH_BITS = 256;
+
+  private static final ThreadLocal<SecretKeyFactory> KEY_FACTORY =
+    ThreadLocal.withInitial(() -> {
+      try {
+        return SecretKeyFactory.getInstance(ALGORITHM);
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(ALGORITHM + " indisponível", e);
+      }
+    });
+
+  private static final ThreadLocal<SecureRandom> RANDOM =
+    ThreadLocal.withInitial(SecureRandom::new);
+
+  private final int iterations;
+
+  public Pbkdf2PasswordHash(int iterations) {
+    if (iterations < 1) {
+      throw new IllegalArgumentException(
+        "Número de iterações deve ser positivo"
+      );
+    }
+    this.iterations = iterations;
+  }
+
+  public int getIterations() {
+    return iterations;
+  }
+
+  @Override
+  public boolean supports(String encodedPassword) {
+    return encodedPassword != null && encodedPassword.startsWith(PREFIX);
+  }
+
+  @Override
+  public String encode(String rawPassword) {
+    byte[] salt = new byte[SALT_LENGTH];
+    RANDOM.get().nextBytes(salt);
+    Base64.Encoder encoder = Base64.getEncoder();
+    return (
+      PREFIX +
+      iterations +
+      "$" +
+      encoder.encodeToString(salt) +
+      "$" +
+      encoder.encodeToString(hash(rawPassword, salt, iterations))
+    );
+  }
+
+  @Override
+  public boolean matches(String rawPassword, String encodedPassword) {
+    String[] partes = encodedPassword.substring(PREFIX.length()).split("\\$");
+    if (partes.length != 3) {
+      return false;
+    }
+
+    try {
+      int storedIterations = Integer.parseInt(partes[0]);
+      Base64.Decoder decoder = Base64.getDecoder();
+      byte[] salt = decoder.decode(partes[1]);
+      byte[] storedHash = decoder.decode(partes[2]);
+      return MessageDigest.isEqual(
+        storedHash,
+        hash(rawPassword, salt, storedIterations)
+      );
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean needsRehash(String encodedPassword) {
+    int inicio = PREFIX.length();
+    int fim = encodedPassword.indexOf('$', inicio);
+    if (fim < 0) {
+      return true;
+    }
+    try {
+      return (
+        Integer.parseInt(encodedPassword.substring(inicio, fim)) < iterations
+      );
+    } catch (NumberFormatException e) {
+      return true;
+    }
+  }
+
+  private static byte[] hash(String password, byte[] salt, int iterations) {
+    PBEKeySpec spec = new PBEKeySpec(
+      password.toCharArray(),
+      salt,
+      iterations,
+      HASH_LENGTH_BITS
+    );
+    try {
+      return KEY_FACTORY.get().generateSecret(spec).getEncoded();
+    } catch (InvalidKeySpecException e) {
+      throw new IllegalStateException("Erro ao gerar hash PBKDF2", e);
+    } finally {
+      spec.clearPassword();
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package br.com.gestao_hospitalar.auth_service.service;
+
+import br.com.gestao_hospitalar.auth_service.entity.User;
+import br.com.gestao_hospitalar.auth_service.enums.UserType;
+import br.com.gestao_hospitalar.auth_service.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Busca a credencial usada no login. O identificador é classificado antes da
+ * consulta (e-mail se tiver "@", CPF se forem 11 dígitos), então cada login
+ * faz no máximo um SELECT, pelo índice certo; identificadores que não são
+ * nem um nem outro nem chegam ao banco.
+ *
+ * <p>As credenciais encontradas ficam em cache por poucos segundos, para que
+ * tentativas repetidas do mesmo usuário custem só o hash da senha. Mudanças
+ * de senha feitas nesta instância invalidam o cache na hora; nas demais
+ * instâncias valem após {@code auth.credenciais.cache.ttl-seconds}.
+ */
+@Service
+public class CredencialService implements MeterBinder {
+
+  private final UserRepository repository;
+  private final Cache<Login, Credencial> credenciais;
+
+  public CredencialService(
+    UserRepository repository,
+    @Value("${auth.credenciais.cache.max-entries:10000}") long maxEntries,
+    @Value("${auth.credenciais.cache.ttl-seconds:30}") long ttlSeconds
+  ) {
+    this.repository = repository;
+    this.credenciais = Caffeine.newBuilder()
+      .maximumSize(maxEntries)
+      .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+      .recordStats()
+      .build();
+  }
+
+  public Optional<Credencial> buscar(String identifier) {
+    Login login = Login.de(identifier);
+    if (login == null) {
+      return Optional.empty();
+    }
+
+    Credencial credencial = credenciais.getIfPresent(login);
+    if (credencial != null) {
+      return Optional.of(credencial);
+    }
+
+    // Só credenciais existentes entram no cache: um usuário recém-cadastrado
+    // precisa conseguir entrar logo em seguida
+    Optional<Credencial> encontrada = (
+      login.tipo() == Login.Tipo.CPF
+        ? repository.findByCpf(login.valor())
+        : repository.findByEmailNormalizado(login.valor())
+    ).map(Credencial::new);
+    encontrada.ifPresent(c -> credenciais.put(login, c));
+    return encontrada;
+  }
+
+  /** Atualiza o hash em cache depois de uma troca ou migração de senha. */
+  public void atualizar(User user) {
+    Credencial credencial = new Credencial(user);
+    for (Login login : Login.todos(user)) {
+      credenciais.asMap().computeIfPresent(login, (k, v) -> credencial);
+    }
+  }
+
+  public void invalidar(User user) {
+    credenciais.invalidateAll(Login.todos(user));
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, credenciais, "auth.credenciais");
+  }
+
+  /** Dados do usuário necessários para validar a senha e emitir o token. */
+  public record Credencial(
+    UUID id,
+    String cpf,
+    String email,
+    String password,
+    UserType type
+  ) {
+    Credencial(User user) {
+      this(
+        user.getId(),
+        user.getCpf(),
+        user.getEmail(),
+        user.getPassword(),
+        user.getType()
+      );
+    }
+
+    public User paraUsuario() {
+      User user = new User();
+      user.setId(id);
+      user.setCpf(cpf);
+      user.setEmail(email);
+      user.setPassword(password);
+      user.setType(type);
+      return user;
+    }
+  }
+
+  /** Identificador de login normalizado; também é a chave do cache. */
+  record Login(Tipo tipo, String valor) {
+    enum Tipo {
+      CPF,
+      EMAIL,
+    }
+
+    static Login de(String identifier) {
+      if (identifier == null) {
+        return null;
+      }
+      String limpo = identifier.strip();
+      if (limpo.indexOf('@') >= 0) {
+        return new Login(Tipo.EMAIL, limpo.toLowerCase(Locale.ROOT));
+      }
+      // Aceita o CPF com máscara (000.000.000-00)
+      String digitos = limpo.replace(".", "").replace("-", "");
+      if (
+        digitos.length() == 11 &&
+        digitos.chars().allMatch(c -> c >= '0' && c <= '9')
+      ) {
+        return new Login(Tipo.CPF, digitos);
+      }
+      return null;
+    }
+
+    static List<Login> todos(User user) {
+      return List.of(
+        new Login(Tipo.CPF, user.getCpf()),
+        new Login(Tipo.EMAIL, user.getEmail().toLowerCase(Locale.ROOT))
+      );
+    }
+  }
+}
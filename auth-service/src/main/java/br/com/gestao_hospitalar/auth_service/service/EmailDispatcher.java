@@ -0,0 +1,151 @@
+package br.com.gestao_hospitalar.auth_service.service;
+
+import br.com.gestao_hospitalar.auth_service.entity.EmailOutbox;
+import br.com.gestao_hospitalar.auth_service.enums.EmailStatus;
+import br.com.gestao_hospitalar.auth_service.repository.EmailOutboxRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Envia em segundo plano os e-mails da email_outbox. Cada lote é entregue
+ * em uma única conexão SMTP; mensagens que falham são reagendadas com
+ * backoff exponencial até {@code maxTentativas}. Mensagens enviadas são
+ * removidas da tabela, pois o corpo contém a senha gerada.
+ */
+@Component
+public class EmailDispatcher {
+
+  private static final Logger log = LoggerFactory.getLogger(
+    EmailDispatcher.class
+  );
+
+  private final EmailOutboxRepository repository;
+  private final JavaMailSender mailSender;
+  private final int tamanhoLote;
+  private final int maxTentativas;
+  private final long backoffBaseMs;
+
+  public EmailDispatcher(
+    EmailOutboxRepository repository,
+    JavaMailSender mailSender,
+    @Value("${mail.outbox.batch-size:50}") int tamanhoLote,
+    @Value("${mail.outbox.max-attempts:8}") int maxTentativas,
+    @Value("${mail.outbox.backoff-base-ms:5000}") long backoffBaseMs
+  ) {
+    this.repository = repository;
+    this.mailSender = mailSender;
+    this.tamanhoLote = tamanhoLote;
+    this.maxTentativas = maxTentativas;
+    this.backoffBaseMs = backoffBaseMs;
+  }
+
+  @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:2000}")
+  @Transactional
+  public int dispatch() {
+    List<EmailOutbox> lote = repository.lockPendentes(
+      LocalDateTime.now(),
+      tamanhoLote
+    );
+    if (lote.isEmpty()) {
+      return 0;
+    }
+
+    SimpleMailMessage[] mensagens = lote
+      .stream()
+      .map(this::toMessage)
+      .toArray(SimpleMailMessage[]::new);
+
+    Map<Object, Exception> falhas = Map.of();
+    try {
+      mailSender.send(mensagens);
+    } catch (MailSendException e) {
+      falhas = e.getFailedMessages();
+      if (falhas.isEmpty()) {
+        falhas = todasFalharam(mensagens, e);
+      }
+    } catch (MailException e) {
+      falhas = todasFalharam(mensagens, e);
+    }
+
+    int enviados = 0;
+    for (int i = 0; i < lote.size(); i++) {
+      EmailOutbox email = lote.get(i);
+      Exception erro = falhas.get(mensagens[i]);
+      if (erro == null) {
+        repository.delete(email);
+        enviados++;
+      } else {
+        reagendar(email, erro);
+      }
+    }
+
+    if (enviados < lote.size()) {
+      log.warn(
+        "{} de {} e-mails falharam e foram reagendados",
+        lote.size() - enviados,
+        lote.size()
+      );
+    }
+    return enviados;
+  }
+
+  private void reagendar(EmailOutbox email, Exception erro) {
+    int tentativas = email.getTentativas() + 1;
+    email.setTentativas(tentativas);
+    email.setUltimoErro(truncar(erro.getMessage()));
+
+    if (tentativas >= maxTentativas) {
+      email.setStatus(EmailStatus.FALHOU);
+      log.error(
+        "E-mail {} descartado após {} tentativas",
+        email.getId(),
+        tentativas
+      );
+    } else {
+      long atraso = backoffBaseMs << Math.min(tentativas - 1, 16);
+      email.setProximaTentativa(
+        LocalDateTime.now().plus(Duration.ofMillis(atraso))
+      );
+    }
+    repository.save(email);
+  }
+
+  private SimpleMailMessage toMessage(EmailOutbox email) {
+    SimpleMailMessage message = new SimpleMailMessage();
+    message.setTo(email.getDestinatario());
+    message.setSubject(email.getAssunto());
+    message.setText(email.getCorpo());
+    return message;
+  }
+
+  private static Map<Object, Exception> todasFalharam(
+    SimpleMailMessage[] mensagens,
+    Exception erro
+  ) {
+    Map<Object, Exception> falhas = new IdentityHashMap<>();
+    for (SimpleMailMessage mensagem : mensagens) {
+      falhas.put(mensagem, erro);
+    }
+    return falhas;
+  }
+
+  private static String truncar(String mensagem) {
+    if (mensagem == null || mensagem.length() <= 1000) {
+      return mensagem;
+    }
+    return mensagem.substring(0, 1000);
+  }
+}
@@ -0,0 +1,38 @@
+package br.com.gestao_hospitalar.auth_service.service;
+
+import br.com.gestao_hospitalar.auth_service.entity.EmailOutbox;
+import br.com.gestao_hospitalar.auth_service.enums.EmailStatus;
+import br.com.gestao_hospitalar.auth_service.repository.EmailOutboxRepository;
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Enfileira e-mails na tabela email_outbox. A gravação participa da
+ * transação de quem chama, então o e-mail só existe se a operação de
+ * origem (ex.: cadastro do usuário) for confirmada.
+ */
+@Service
+public class EmailOutboxService {
+
+  @Autowired
+  private EmailOutboxRepository repository;
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public EmailOutbox enqueue(String to, String subject, String text) {
+    LocalDateTime agora = LocalDateTime.now();
+
+    EmailOutbox email = new EmailOutbox();
+    email.setDestinatario(to);
+    email.setAssunto(subject);
+    email.setCorpo(text);
+    email.setStatus(EmailStatus.PENDENTE);
+    email.setTentativas(0);
+    email.setProximaTentativa(agora);
+    email.setCriadoEm(agora);
+
+    return repository.save(email);
+  }
+}
@@ -0,0 +1,169 @@
+package br.com.gestao_hospitalar.auth_service.service;
+
+import br.com.gestao_hospitalar.auth_service.dto.RevogadosResponse;
+import br.com.gestao_hospitalar.auth_service.security.FiltroBloom;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Mantém o snapshot da lista de revogação. Os jti revogados e ainda não
+ * expirados viram um {@link FiltroBloom} que os verificadores (api-gateway)
+ * baixam periodicamente com {@code If-None-Match}; a checagem por requisição
+ * passa a ser algumas leituras de bit em memória.
+ *
+ * <p>Um falso positivo só faz o cliente renovar o token antes da hora: o
+ * novo jti quase certamente não colide.
+ *
+ * <p>O snapshot é montado fora de qualquer trava, porque a consulta ao banco
+ * roda nas threads das requisições (afterCommit e primeiro
+ * {@link #getSnapshot()}). A trava só protege a troca do campo, para que um
+ * snapshot montado antes não substitua um mais novo.
+ */
+@Service
+public class RevogacaoService implements MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(
+    RevogacaoService.class
+  );
+
+  private final JdbcTemplate jdbcTemplate;
+  private final double falsoPositivo;
+
+  private final AtomicLong geracoes = new AtomicLong();
+  private final ReentrantLock publicacao = new ReentrantLock();
+  private long geracaoPublicada;
+  private volatile Snapshot snapshot;
+
+  public RevogacaoService(
+    JdbcTemplate jdbcTemplate,
+    @Value("${revogacao.falso-positivo:0.0001}") double falsoPositivo
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.falsoPositivo = falsoPositivo;
+  }
+
+  public Snapshot getSnapshot() {
+    Snapshot atual = snapshot;
+    return atual != null ? atual : atualizar();
+  }
+
+  /**
+   * Remonta o snapshot assim que a transação atual confirmar, para que a
+   * revogação chegue ao gateway já na próxima consulta dele.
+   */
+  public void registrarAlteracao() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      atualizar();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+      new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          atualizar();
+        }
+      }
+    );
+  }
+
+  /**
+   * Também roda periodicamente: tira do filtro os jti que já expiraram e
+   * incorpora revogações feitas por outras instâncias do serviço.
+   */
+  @Scheduled(fixedDelayString = "${revogacao.atualizacao-ms:30000}")
+  public Snapshot atualizar() {
+    long geracao = geracoes.incrementAndGet();
+    LocalDateTime agora = LocalDateTime.now();
+    List<String> jtis = jdbcTemplate.queryForList(
+      "SELECT jti::text FROM token_revogado WHERE expira_em > ?",
+      String.class,
+      Timestamp.valueOf(agora)
+    );
+    FiltroBloom filtro = FiltroBloom.de(jtis, falsoPositivo);
+    byte[] bits = filtro.getBits();
+
+    CRC32 crc = new CRC32();
+    crc.update(bits);
+    String etag = String.format(
+      "\"%d-%d-%08x\"",
+      filtro.getM(),
+      filtro.getK(),
+      crc.getValue()
+    );
+
+    publicacao.lock();
+    try {
+      if (geracao > geracaoPublicada) {
+        geracaoPublicada = geracao;
+        Snapshot anterior = snapshot;
+        if (anterior == null || !anterior.etag().equals(etag)) {
+          snapshot = new Snapshot(
+            etag,
+            new RevogadosResponse(
+              filtro.getM(),
+              filtro.getK(),
+              Base64.getEncoder().encodeToString(bits),
+              jtis.size(),
+              agora
+            )
+          );
+        }
+      }
+      return snapshot;
+    } finally {
+      publicacao.unlock();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${revogacao.limpeza-ms:3600000}")
+  public void limparExpirados() {
+    Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+    int revogados = jdbcTemplate.update(
+      "DELETE FROM token_revogado WHERE expira_em <= ?",
+      agora
+    );
+    int sessoes = jdbcTemplate.update(
+      "DELETE FROM refresh_token WHERE expira_em <= ?",
+      agora
+    );
+    if (revogados > 0 || sessoes > 0) {
+      log.info(
+        "Limpeza de sessões: {} jti revogados e {} refresh tokens expirados removidos",
+        revogados,
+        sessoes
+      );
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("auth.revogacao.jti", this, s ->
+        s.snapshot != null ? s.snapshot.conteudo().getQuantidade() : 0
+      )
+      .description("jti revogados e ainda não expirados no filtro")
+      .register(registry);
+    Gauge.builder("auth.revogacao.filtro.tamanho", this, s ->
+        s.snapshot != null ? s.snapshot.conteudo().getM() / 8 : 0
+      )
+      .baseUnit("bytes")
+      .register(registry);
+  }
+
+  public record Snapshot(String etag, RevogadosResponse conteudo) {}
+}
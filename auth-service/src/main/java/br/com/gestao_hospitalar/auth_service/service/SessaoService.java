@@ -0,0 +1,231 @@
+package br.com.gestao_hospitalar.auth_service.service;
+
+import br.com.gestao_hospitalar.auth_service.dto.AuthResponse;
+import br.com.gestao_hospitalar.auth_service.entity.User;
+import br.com.gestao_hospitalar.auth_service.exception.ApiException;
+import br.com.gestao_hospitalar.auth_service.repository.UserRepository;
+import br.com.gestao_hospitalar.auth_service.security.JwtTokenProvider;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Sessões de login: um token de acesso curto (JWT com {@code jti}) e um
+ * refresh token opaco de uso único. Cada renovação consome o refresh token e
+ * emite um novo par; apresentar de novo um refresh token já consumido indica
+ * que ele vazou, e todas as sessões do usuário são revogadas.
+ */
+@Service
+public class SessaoService {
+
+  private static final Logger log = LoggerFactory.getLogger(
+    SessaoService.class
+  );
+
+  private static final int BYTES_REFRESH_TOKEN = 32;
+
+  private static final String INSERIR_SESSAO =
+    "INSERT INTO refresh_token (id, usuario_id, hash, ultimo_jti, " +
+    "ultimo_jti_expira_em, criado_em, expira_em) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+  // Só uma requisição consegue consumir o refresh token: as concorrentes
+  // esperam a linha e, depois do commit, não a encontram mais ativa
+  private static final String CONSUMIR_SESSAO =
+    "UPDATE refresh_token SET revogado_em = ? " +
+    "WHERE hash = ? AND revogado_em IS NULL AND expira_em > ? " +
+    "RETURNING usuario_id";
+
+  private static final String ENCERRAR_SESSAO =
+    "UPDATE refresh_token SET revogado_em = ? " +
+    "WHERE hash = ? AND revogado_em IS NULL " +
+    "RETURNING ultimo_jti";
+
+  private static final String REVOGAR_JTI =
+    "INSERT INTO token_revogado (jti, expira_em, revogado_em) " +
+    "SELECT ultimo_jti, ultimo_jti_expira_em, ? FROM refresh_token " +
+    "WHERE %s AND ultimo_jti_expira_em > ? " +
+    "ON CONFLICT (jti) DO NOTHING";
+
+  private final SecureRandom random = new SecureRandom();
+
+  private final JdbcTemplate jdbcTemplate;
+  private final UserRepository userRepository;
+  private final JwtTokenProvider jwtTokenProvider;
+  private final RevogacaoService revogacaoService;
+  private final long refreshExpirationMs;
+
+  public SessaoService(
+    JdbcTemplate jdbcTemplate,
+    UserRepository userRepository,
+    JwtTokenProvider jwtTokenProvider,
+    RevogacaoService revogacaoService,
+    @Value("${jwt.refresh-expiration:604800000}") long refreshExpirationMs
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.userRepository = userRepository;
+    this.jwtTokenProvider = jwtTokenProvider;
+    this.revogacaoService = revogacaoService;
+    this.refreshExpirationMs = refreshExpirationMs;
+  }
+
+  @Transactional
+  public AuthResponse criar(User user) {
+    return emitir(user, Instant.now());
+  }
+
+  /**
+   * Troca o refresh token por um novo par. O token de acesso anterior não é
+   * revogado: requisições em andamento ainda podem usá-lo até expirar.
+   */
+  @Transactional(noRollbackFor = ApiException.class)
+  public AuthResponse renovar(String refreshToken) {
+    byte[] hash = hash(refreshToken);
+    Instant agora = Instant.now();
+    Timestamp momento = timestamp(agora);
+
+    List<UUID> consumida = jdbcTemplate.queryForList(
+      CONSUMIR_SESSAO,
+      UUID.class,
+      momento,
+      hash,
+      momento
+    );
+    if (consumida.isEmpty()) {
+      List<UUID> reutilizada = jdbcTemplate.queryForList(
+        "SELECT usuario_id FROM refresh_token " +
+        "WHERE hash = ? AND revogado_em IS NOT NULL AND expira_em > ?",
+        UUID.class,
+        hash,
+        momento
+      );
+      if (!reutilizada.isEmpty()) {
+        log.warn(
+          "Refresh token reutilizado; revogando as sessões do usuário {}",
+          reutilizada.get(0)
+        );
+        revogarTodas(reutilizada.get(0));
+      }
+      throw sessaoInvalida();
+    }
+
+    User user = userRepository
+      .findById(consumida.get(0))
+      .orElseThrow(SessaoService::sessaoInvalida);
+    return emitir(user, agora);
+  }
+
+  /** Logout: encerra a sessão e revoga o token de acesso emitido por ela. */
+  @Transactional
+  public void encerrar(String refreshToken) {
+    Timestamp momento = timestamp(Instant.now());
+    List<UUID> jtis = jdbcTemplate.queryForList(
+      ENCERRAR_SESSAO,
+      UUID.class,
+      momento,
+      hash(refreshToken)
+    );
+    if (jtis.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.update(
+      String.format(REVOGAR_JTI, "ultimo_jti = ?"),
+      momento,
+      jtis.get(0),
+      momento
+    );
+    revogacaoService.registrarAlteracao();
+  }
+
+  /**
+   * Revoga todas as sessões do usuário e os tokens de acesso ainda válidos
+   * emitidos por elas, inclusive os de sessões já renovadas.
+   *
+   * @return quantidade de sessões ativas encerradas
+   */
+  @Transactional
+  public int revogarTodas(UUID usuarioId) {
+    Timestamp momento = timestamp(Instant.now());
+    jdbcTemplate.update(
+      String.format(REVOGAR_JTI, "usuario_id = ?"),
+      momento,
+      usuarioId,
+      momento
+    );
+    int sessoes = jdbcTemplate.update(
+      "UPDATE refresh_token SET revogado_em = ? " +
+      "WHERE usuario_id = ? AND revogado_em IS NULL",
+      momento,
+      usuarioId
+    );
+    revogacaoService.registrarAlteracao();
+    return sessoes;
+  }
+
+  private AuthResponse emitir(User user, Instant agora) {
+    UUID jti = UUID.randomUUID();
+    String token = jwtTokenProvider.generateToken(user, jti, agora);
+
+    byte[] bytes = new byte[BYTES_REFRESH_TOKEN];
+    random.nextBytes(bytes);
+    String refreshToken = Base64.getUrlEncoder()
+      .withoutPadding()
+      .encodeToString(bytes);
+
+    jdbcTemplate.update(
+      INSERIR_SESSAO,
+      UUID.randomUUID(),
+      user.getId(),
+      hash(refreshToken),
+      jti,
+      timestamp(jwtTokenProvider.expiraEm(agora)),
+      timestamp(agora),
+      timestamp(agora.plusMillis(refreshExpirationMs))
+    );
+
+    return new AuthResponse(
+      token,
+      refreshToken,
+      jwtTokenProvider.getJwtExpirationInMs() / 1000
+    );
+  }
+
+  // O refresh token tem 256 bits aleatórios, então um SHA-256 simples basta:
+  // não há o que adivinhar por força bruta como numa senha
+  private static byte[] hash(String refreshToken) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(
+        refreshToken.getBytes(StandardCharsets.UTF_8)
+      );
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponível", e);
+    }
+  }
+
+  private static Timestamp timestamp(Instant instante) {
+    return Timestamp.valueOf(
+      LocalDateTime.ofInstant(instante, ZoneId.systemDefault())
+    );
+  }
+
+  private static ApiException sessaoInvalida() {
+    return new ApiException(
+      "Sessão inválida ou expirada",
+      HttpStatus.UNAUTHORIZED
+    );
+  }
+}
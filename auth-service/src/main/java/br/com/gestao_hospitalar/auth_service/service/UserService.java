@@ -2,90 +2,232 @@ package br.com.gestao_hospitalar.auth_service.service;
 
 import br.com.gestao_hospitalar.auth_service.dto.*;
 import br.com.gestao_hospitalar.auth_service.entity.User;
+import br.com.gestao_hospitalar.auth_service.enums.UserType;
 import br.com.gestao_hospitalar.auth_service.exception.ApiException;
+import br.com.gestao_hospitalar.auth_service.repository.UserJdbcRepository;
 import br.com.gestao_hospitalar.auth_service.repository.UserRepository;
 import br.com.gestao_hospitalar.auth_service.security.CustomPasswordEncoder;
-import br.com.gestao_hospitalar.auth_service.security.JwtTokenProvider;
+import br.com.gestao_hospitalar.auth_service.security.PasswordHashingPool;
+import br.com.gestao_hospitalar.auth_service.service.CredencialService.Credencial;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class UserService {
 
+  private static final int TAMANHO_BATCH = 100;
+
   @Autowired
   private UserRepository repository;
 
+  @Autowired
+  private UserJdbcRepository userJdbcRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
   @Autowired
   private CustomPasswordEncoder customPasswordEncoder;
 
   @Autowired
-  private JavaMailSender mailSender;
+  private PasswordHashingPool passwordHashingPool;
+
+  @Autowired
+  private EmailOutboxService emailOutboxService;
+
+  @Autowired
+  private SessaoService sessaoService;
 
   @Autowired
-  private JwtTokenProvider jwtTokenProvider;
+  private CredencialService credencialService;
 
-  // Agora retorna só o e-mail registrado
+  // Agora retorna só o e-mail registrado. O e-mail com a senha é enfileirado
+  // na mesma transação e enviado em segundo plano pelo EmailDispatcher
   public String registerUser(RegisterRequest request) {
-    if (repository.existsByEmail(request.getEmail())) {
-      throw new ApiException("E-mail já registrado", HttpStatus.CONFLICT);
-    }
-    if (repository.existsByCpf(request.getCpf())) {
-      throw new ApiException("CPF já registrado", HttpStatus.CONFLICT);
-    }
+    // Guarda o e-mail normalizado, como o login compara
+    String email = request.getEmail().strip().toLowerCase(Locale.ROOT);
 
+    // O hash leva ~100 ms: é feito antes de abrir a transação para não
+    // segurar uma conexão do pool durante o cálculo
     String generatedPassword = generateRandomPassword();
-    String hashedPassword = customPasswordEncoder.encodeWithSHA256(
-      generatedPassword
-    );
+    String hashedPassword = passwordHashingPool.encode(generatedPassword);
 
     User newUser = new User();
+    newUser.setId(UUID.randomUUID());
     newUser.setCpf(request.getCpf());
-    newUser.setEmail(request.getEmail());
+    newUser.setEmail(email);
     newUser.setType(request.getType());
     newUser.setPassword(hashedPassword);
 
-    repository.save(newUser);
-
-    sendPasswordByEmail(newUser.getEmail(), generatedPassword);
+    // Uma única instrução: quem chega por último numa corrida recebe o 409
+    // em vez de um erro de constraint
+    boolean inserido = transactionTemplate().execute(status -> {
+      if (!userJdbcRepository.inserirSeNovo(newUser)) {
+        return false;
+      }
+      sendPasswordByEmail(newUser.getEmail(), generatedPassword);
+      return true;
+    });
+    if (!inserido) {
+      throw conflito(email);
+    }
 
     return newUser.getEmail();
   }
 
-  // Retorna o token dentro do AuthResponse
+  /** Descobre qual dado já estava cadastrado, mantendo a precedência do e-mail. */
+  private ApiException conflito(String email) {
+    return repository.findByEmailNormalizado(email).isPresent()
+      ? new ApiException("E-mail já registrado", HttpStatus.CONFLICT)
+      : new ApiException("CPF já registrado", HttpStatus.CONFLICT);
+  }
+
+  /**
+   * Cadastro em lote para integração de funcionários pelo RH. As senhas são
+   * geradas e cifradas em paralelo antes de abrir a transação; depois os
+   * usuários entram com JDBC batching e os e-mails são enfileirados na mesma
+   * transação. Conflitos não interrompem o lote: cada item volta com o seu
+   * resultado.
+   */
+  public CadastroLoteResponse registerUsers(CadastroLoteRequest request) {
+    List<RegisterRequest> itens = request.getUsuarios();
+    List<ResultadoCadastro> resultados = new ArrayList<>(itens.size());
+    List<User> novos = new ArrayList<>(itens.size());
+    List<Integer> posicoes = new ArrayList<>(itens.size());
+    Set<String> cpfsNoLote = new HashSet<>();
+    Set<String> emailsNoLote = new HashSet<>();
+
+    for (RegisterRequest item : itens) {
+      String email = item.getEmail().strip().toLowerCase(Locale.ROOT);
+      String erro = null;
+      if (item.getType() != UserType.FUNCIONARIO) {
+        erro = "Cadastro em lote aceita apenas FUNCIONARIO";
+      } else if (!emailsNoLote.add(email)) {
+        erro = "E-mail repetido no lote";
+      } else if (!cpfsNoLote.add(item.getCpf())) {
+        erro = "CPF repetido no lote";
+      }
+      resultados.add(
+        new ResultadoCadastro(item.getCpf(), email, erro == null, erro)
+      );
+
+      if (erro == null) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setCpf(item.getCpf());
+        user.setEmail(email);
+        user.setType(item.getType());
+        novos.add(user);
+        posicoes.add(resultados.size() - 1);
+      }
+    }
+
+    List<String> senhas = novos
+      .stream()
+      .map(u -> generateRandomPassword())
+      .toList();
+    List<String> hashes = passwordHashingPool.encodeAll(senhas);
+    for (int i = 0; i < novos.size(); i++) {
+      novos.get(i).setPassword(hashes.get(i));
+    }
+
+    int criados = transactionTemplate().execute(status -> {
+      boolean[] inseridos = userJdbcRepository.inserirTodosSeNovos(
+        novos,
+        TAMANHO_BATCH
+      );
+      List<String> emailsEmUso = new ArrayList<>();
+      int total = 0;
+      for (int i = 0; i < novos.size(); i++) {
+        if (inseridos[i]) {
+          sendPasswordByEmail(novos.get(i).getEmail(), senhas.get(i));
+          total++;
+        } else {
+          emailsEmUso.add(novos.get(i).getEmail());
+        }
+      }
+
+      Set<String> emailsCadastrados = emailsEmUso.isEmpty()
+        ? Set.of()
+        : userJdbcRepository.emailsCadastrados(emailsEmUso);
+      for (int i = 0; i < novos.size(); i++) {
+        if (!inseridos[i]) {
+          ResultadoCadastro resultado = resultados.get(posicoes.get(i));
+          resultado.setCriado(false);
+          resultado.setErro(
+            emailsCadastrados.contains(novos.get(i).getEmail())
+              ? "E-mail já registrado"
+              : "CPF já registrado"
+          );
+        }
+      }
+      return total;
+    });
+
+    return new CadastroLoteResponse(criados, resultados);
+  }
+
+  private TransactionTemplate transactionTemplate() {
+    return new TransactionTemplate(transactionManager);
+  }
+
+  // Retorna o token de acesso e o refresh token da nova sessão
   public AuthResponse authenticate(AuthRequest request) {
     String identifier = request.getIdentifier();
     String password = request.getPassword();
 
-    User user = repository
-      .findByEmail(identifier)
-      .or(() -> repository.findByCpf(identifier))
+    Credencial credencial = credencialService
+      .buscar(identifier)
       .orElseThrow(() ->
         new ApiException("Usuário não encontrado", HttpStatus.NOT_FOUND)
       );
 
-    if (!customPasswordEncoder.matches(password, user.getPassword())) {
+    if (!passwordHashingPool.matches(password, credencial.password())) {
       throw new ApiException("Senha inválida", HttpStatus.BAD_REQUEST);
     }
 
-    return new AuthResponse(jwtTokenProvider.generateToken(user));
+    User user = credencial.paraUsuario();
+
+    // Migra senhas no formato antigo (ou com custo menor) no login
+    if (customPasswordEncoder.needsRehash(user.getPassword())) {
+      user.setPassword(passwordHashingPool.encode(password));
+      repository.save(user);
+      credencialService.atualizar(user);
+    }
+
+    return sessaoService.criar(user);
   }
 
+  @Transactional
   public ApiResponse handleForgotPassword(ForgotPasswordRequest request) {
+    // Mesma normalização do cadastro e do login
+    String email = request.getEmail().strip().toLowerCase(Locale.ROOT);
     User user = repository
-      .findByEmail(request.getEmail())
+      .findByEmailNormalizado(email)
       .orElseThrow(() ->
         new ApiException("E-mail não encontrado", HttpStatus.NOT_FOUND)
       );
 
     String newPassword = generateRandomPassword();
-    String hashedPassword = customPasswordEncoder.encodeWithSHA256(newPassword);
+    String hashedPassword = passwordHashingPool.encode(newPassword);
 
     user.setPassword(hashedPassword);
     repository.save(user);
+    credencialService.invalidar(user);
+
+    // Quem estava logado com a senha antiga precisa entrar de novo
+    sessaoService.revogarTodas(user.getId());
 
     sendPasswordByEmail(user.getEmail(), newPassword);
 
@@ -97,10 +239,9 @@ public class UserService {
   }
 
   private void sendPasswordByEmail(String to, String password) {
-    SimpleMailMessage message = new SimpleMailMessage();
-    message.setTo(to);
-    message.setSubject("Senha de acesso");
-    message.setText(
+    emailOutboxService.enqueue(
+      to,
+      "Senha de acesso",
       String.format(
         """
         Bem-vindo ao Sistema de Gestão Hospitalar!
@@ -112,6 +253,5 @@ public class UserService {
         password
       )
     );
-    mailSender.send(message);
   }
 }
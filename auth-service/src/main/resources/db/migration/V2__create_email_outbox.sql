@@ -0,0 +1,17 @@
+-- Fila persistente de e-mails enviados em segundo plano pelo EmailDispatcher
+CREATE TABLE email_outbox (
+    id UUID PRIMARY KEY,
+    destinatario VARCHAR(255) NOT NULL,
+    assunto VARCHAR(255) NOT NULL,
+    corpo TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    proxima_tentativa TIMESTAMP NOT NULL,
+    ultimo_erro VARCHAR(1000),
+    criado_em TIMESTAMP NOT NULL
+);
+
+-- Apenas mensagens pendentes são consultadas pelo dispatcher
+CREATE INDEX idx_email_outbox_pendentes
+    ON email_outbox (proxima_tentativa)
+    WHERE status = 'PENDENTE';
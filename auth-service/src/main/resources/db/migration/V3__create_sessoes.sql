@@ -0,0 +1,30 @@
+-- Refresh tokens opacos: o banco guarda só o SHA-256 do valor entregue ao
+-- cliente. ultimo_jti é o jti do último token de acesso emitido pela
+-- sessão, para que logout e revogação também derrubem o token em uso.
+CREATE TABLE refresh_token (
+    id UUID PRIMARY KEY,
+    usuario_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    hash BYTEA NOT NULL UNIQUE,
+    ultimo_jti UUID NOT NULL,
+    ultimo_jti_expira_em TIMESTAMP NOT NULL,
+    criado_em TIMESTAMP NOT NULL,
+    expira_em TIMESTAMP NOT NULL,
+    revogado_em TIMESTAMP
+);
+
+CREATE INDEX idx_refresh_token_usuario_ativo
+    ON refresh_token (usuario_id)
+    WHERE revogado_em IS NULL;
+
+CREATE INDEX idx_refresh_token_expira_em ON refresh_token (expira_em);
+
+-- jti de tokens de acesso revogados antes de expirar. Linhas vencidas são
+-- removidas periodicamente, então a tabela fica do tamanho das revogações
+-- dos últimos minutos.
+CREATE TABLE token_revogado (
+    jti UUID PRIMARY KEY,
+    expira_em TIMESTAMP NOT NULL,
+    revogado_em TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_token_revogado_expira_em ON token_revogado (expira_em);
@@ -0,0 +1,4 @@
+-- O login compara o e-mail sem diferenciar maiúsculas; sem este índice a
+-- busca por lower(email) varre a tabela inteira. O CPF já tem o índice da
+-- constraint UNIQUE.
+CREATE INDEX idx_users_email_lower ON users (lower(email));
@@ -0,0 +1,60 @@
+package br.com.gestao_hospitalar.auth_service.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * O api-gateway recalcula as mesmas posições em JavaScript, então os hashes
+ * precisam bater com os valores de referência da FNV-1a.
+ */
+class FiltroBloomTests {
+
+  @Test
+  void fnv1aSegueOsValoresDeReferencia() {
+    assertThat(FiltroBloom.fnv1a(new byte[0], 0x811c9dc5)).isEqualTo(
+      0x811c9dc5
+    );
+    assertThat(
+      FiltroBloom.fnv1a("a".getBytes(StandardCharsets.UTF_8), 0x811c9dc5)
+    ).isEqualTo(0xe40c292c);
+    assertThat(
+      FiltroBloom.fnv1a("foobar".getBytes(StandardCharsets.UTF_8), 0x811c9dc5)
+    ).isEqualTo(0xbf9cf968);
+  }
+
+  @Test
+  void elementosInseridosSempreSaoEncontrados() {
+    List<String> jtis = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      jtis.add(UUID.randomUUID().toString());
+    }
+
+    FiltroBloom filtro = FiltroBloom.de(jtis, 0.0001);
+
+    assertThat(jtis).allMatch(filtro::talvezContenha);
+  }
+
+  @Test
+  void taxaDeFalsoPositivoFicaPertoDaConfigurada() {
+    List<String> jtis = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      jtis.add(UUID.randomUUID().toString());
+    }
+    FiltroBloom filtro = FiltroBloom.de(jtis, 0.001);
+
+    int falsos = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filtro.talvezContenha(UUID.randomUUID().toString())) {
+        falsos++;
+      }
+    }
+
+    // 0,1% esperado; margem larga para não oscilar
+    assertThat(falsos).isLessThan(300);
+  }
+}
@@ -0,0 +1,106 @@
+package br.com.gestao_hospitalar.auth_service.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.gestao_hospitalar.auth_service.entity.User;
+import br.com.gestao_hospitalar.auth_service.enums.UserType;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * O payload é montado à mão; estes testes garantem que o resultado continua
+ * sendo um JWT que o jjwt (e portanto os verificadores) aceita.
+ */
+class JwtTokenProviderTests {
+
+  private static final String SEGREDO =
+    "segredo-de-teste-segredo-de-teste-segredo-de-teste";
+
+  @Test
+  void tokenHs256TemAsMesmasClaimsDoBuilderDoJjwt() {
+    JwtTokenProvider provider = provider("HS256", "hs-2");
+    User user = usuario("Nome \"com\" aspas\\@hospital.com");
+    UUID jti = UUID.randomUUID();
+    Instant emitidoEm = Instant.ofEpochSecond(1_700_000_000);
+
+    String token = provider.generateToken(user, jti, emitidoEm);
+
+    Jws<Claims> jws = Jwts.parserBuilder()
+      .setSigningKey(Keys.hmacShaKeyFor(SEGREDO.getBytes()))
+      .setClock(() -> Date.from(emitidoEm))
+      .build()
+      .parseClaimsJws(token);
+    Claims claims = jws.getBody();
+    assertThat(jws.getHeader().getKeyId()).isEqualTo("hs-2");
+    assertThat(claims.getId()).isEqualTo(jti.toString());
+    assertThat(claims.getSubject()).isEqualTo(user.getId().toString());
+    assertThat(claims.get("email")).isEqualTo(user.getEmail());
+    assertThat(claims.get("cpf")).isEqualTo("90769281001");
+    assertThat(claims.get("type")).isEqualTo("FUNCIONARIO");
+    assertThat(claims.getIssuedAt().toInstant()).isEqualTo(emitidoEm);
+    assertThat(claims.getExpiration().toInstant()).isEqualTo(
+      emitidoEm.plusSeconds(900)
+    );
+  }
+
+  @Test
+  void tokenEs256ValidaComAChavePublicaPublicada() throws Exception {
+    KeyPairGenerator gerador = KeyPairGenerator.getInstance("EC");
+    gerador.initialize(new ECGenParameterSpec("secp256r1"));
+    KeyPair par = gerador.generateKeyPair();
+
+    JwtTokenProvider provider = new JwtTokenProvider();
+    provider.jwtSecret = SEGREDO;
+    provider.jwtExpirationInMs = 900_000;
+    provider.algoritmo = "ES256";
+    provider.kid = "ec-1";
+    provider.chavePrivadaEs256 = Base64.getEncoder()
+      .encodeToString(par.getPrivate().getEncoded());
+    provider.chavePublicaEs256 = Base64.getEncoder()
+      .encodeToString(par.getPublic().getEncoded());
+    provider.init();
+
+    String token = provider.generateToken(usuario("rh@hospital.com"));
+
+    Jws<Claims> jws = Jwts.parserBuilder()
+      .setSigningKey(par.getPublic())
+      .build()
+      .parseClaimsJws(token);
+    assertThat(jws.getHeader().getAlgorithm()).isEqualTo("ES256");
+    assertThat(jws.getHeader().getKeyId()).isEqualTo("ec-1");
+
+    Map<String, String> jwk = provider.getChavesPublicas().get(0);
+    assertThat(jwk).containsEntry("kid", "ec-1").containsEntry("crv", "P-256");
+    assertThat(Base64.getUrlDecoder().decode(jwk.get("x"))).hasSize(32);
+  }
+
+  private static JwtTokenProvider provider(String algoritmo, String kid) {
+    JwtTokenProvider provider = new JwtTokenProvider();
+    provider.jwtSecret = SEGREDO;
+    provider.jwtExpirationInMs = 900_000;
+    provider.algoritmo = algoritmo;
+    provider.kid = kid;
+    provider.init();
+    return provider;
+  }
+
+  private static User usuario(String email) {
+    User user = new User();
+    user.setId(UUID.randomUUID());
+    user.setCpf("90769281001");
+    user.setEmail(email);
+    user.setType(UserType.FUNCIONARIO);
+    return user;
+  }
+}
@@ -0,0 +1,58 @@
+package br.com.gestao_hospitalar.auth_service.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LimitesDeLoginTests {
+
+  private static final long MINUTO = TimeUnit.MINUTES.toNanos(1);
+
+  @Test
+  void recusaAoEsgotarEInformaAEsperaAteOProximoToken() {
+    BaldesDeTokens baldes = new BaldesDeTokens(1024, 3, 6);
+    long agora = 1;
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(baldes.consumir("ana@hospital.com", agora)).isZero();
+    }
+    long espera = baldes.consumir("ana@hospital.com", agora);
+
+    // 6 por minuto: um token a cada 10 s
+    assertThat(espera).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+    assertThat(baldes.consumir("bia@hospital.com", agora)).isZero();
+  }
+
+  @Test
+  void recarregaComOTempoSemPassarDaCapacidade() {
+    BaldesDeTokens baldes = new BaldesDeTokens(1024, 2, 6);
+    long agora = 1;
+    baldes.consumir("10.0.0.1", agora);
+    baldes.consumir("10.0.0.1", agora);
+
+    agora += MINUTO;
+
+    assertThat(baldes.consumir("10.0.0.1", agora)).isZero();
+    assertThat(baldes.consumir("10.0.0.1", agora)).isZero();
+    assertThat(baldes.consumir("10.0.0.1", agora)).isPositive();
+  }
+
+  @Test
+  void limiteAdaptativoReduzQuandoALatenciaSobe() {
+    LimiteAdaptativo limite = new LimiteAdaptativo(8, 2, 16, 2.0);
+
+    for (int i = 0; i < 8; i++) {
+      assertThat(limite.tentarAdquirir()).isTrue();
+    }
+    assertThat(limite.tentarAdquirir()).isFalse();
+
+    limite.liberar(TimeUnit.MILLISECONDS.toNanos(100), true);
+    for (int i = 0; i < 7; i++) {
+      limite.liberar(TimeUnit.MILLISECONDS.toNanos(400), true);
+    }
+
+    assertThat(limite.getLimite()).isLessThan(8).isGreaterThanOrEqualTo(2);
+    assertThat(limite.getEmUso()).isZero();
+  }
+}
@@ -0,0 +1,97 @@
+package br.com.gestao_hospitalar.auth_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import br.com.gestao_hospitalar.auth_service.entity.EmailOutbox;
+import br.com.gestao_hospitalar.auth_service.enums.EmailStatus;
+import br.com.gestao_hospitalar.auth_service.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+class EmailDispatcherTests {
+
+  @RegisterExtension
+  static GreenMailExtension greenMail = new GreenMailExtension(
+    ServerSetupTest.SMTP
+  );
+
+  private final EmailOutboxRepository repository = mock(
+    EmailOutboxRepository.class
+  );
+
+  @Test
+  void enviaLoteERemoveDaFila() throws Exception {
+    EmailOutbox primeiro = pendente("a@hospital.com");
+    EmailOutbox segundo = pendente("b@hospital.com");
+    when(repository.lockPendentes(any(), anyInt())).thenReturn(
+      List.of(primeiro, segundo)
+    );
+
+    int enviados = dispatcher(ServerSetupTest.SMTP.getPort()).dispatch();
+
+    assertThat(enviados).isEqualTo(2);
+    MimeMessage[] recebidos = greenMail.getReceivedMessages();
+    assertThat(recebidos).hasSize(2);
+    assertThat(recebidos[0].getSubject()).isEqualTo("Senha de acesso");
+    verify(repository).delete(primeiro);
+    verify(repository).delete(segundo);
+  }
+
+  @Test
+  void reagendaQuandoSmtpIndisponivel() {
+    EmailOutbox email = pendente("a@hospital.com");
+    LocalDateTime antes = email.getProximaTentativa();
+    when(repository.lockPendentes(any(), anyInt())).thenReturn(List.of(email));
+
+    // Porta sem servidor SMTP
+    int enviados = dispatcher(ServerSetupTest.SMTP.getPort() + 1).dispatch();
+
+    assertThat(enviados).isZero();
+    assertThat(email.getTentativas()).isEqualTo(1);
+    assertThat(email.getStatus()).isEqualTo(EmailStatus.PENDENTE);
+    assertThat(email.getProximaTentativa()).isAfter(antes);
+    assertThat(email.getUltimoErro()).isNotNull();
+    verify(repository, never()).delete(any());
+    verify(repository).save(email);
+  }
+
+  @Test
+  void marcaComoFalhouAposMaximoDeTentativas() {
+    EmailOutbox email = pendente("a@hospital.com");
+    email.setTentativas(7);
+    when(repository.lockPendentes(any(), anyInt())).thenReturn(List.of(email));
+
+    dispatcher(ServerSetupTest.SMTP.getPort() + 1).dispatch();
+
+    assertThat(email.getStatus()).isEqualTo(EmailStatus.FALHOU);
+  }
+
+  private EmailDispatcher dispatcher(int porta) {
+    JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+    mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+    mailSender.setPort(porta);
+    return new EmailDispatcher(repository, mailSender, 50, 8, 5000);
+  }
+
+  private static EmailOutbox pendente(String destinatario) {
+    EmailOutbox email = new EmailOutbox();
+    email.setId(UUID.randomUUID());
+    email.setDestinatario(destinatario);
+    email.setAssunto("Senha de acesso");
+    email.setCorpo("Sua senha de acesso é: 1234");
+    email.setStatus(EmailStatus.PENDENTE);
+    email.setProximaTentativa(LocalDateTime.now());
+    email.setCriadoEm(LocalDateTime.now());
+    return email;
+  }
+}
@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Roda o mesmo teste de carga com threads de plataforma e com threads
+# virtuais e imprime a vazão e a latência de cada modo.
+#
+# Uso: ./comparar.sh [vus] [duracao]
+# Requer docker compose, k6 e jq. Deve ser executado com o .env da raiz.
+set -euo pipefail
+
+VUS=${1:-2000}
+DURACAO=${2:-60s}
+RAIZ=$(cd "$(dirname "$0")/../.." && pwd)
+RESULTADOS="$(dirname "$0")/resultados"
+BASE_URL=${BASE_URL:-http://localhost:8083}
+
+mkdir -p "$RESULTADOS"
+
+for virtual in false true; do
+  echo ">> spring.threads.virtual.enabled=$virtual"
+  VIRTUAL_THREADS_ENABLED=$virtual docker compose -f "$RAIZ/docker-compose.yml" \
+    up -d --build --force-recreate consulta-service consulta-db
+
+  until curl -sf "$BASE_URL/actuator/health" > /dev/null; do
+    sleep 2
+  done
+
+  k6 run --quiet \
+    -e BASE_URL="$BASE_URL" -e VUS="$VUS" -e DURACAO="$DURACAO" \
+    --summary-export "$RESULTADOS/virtual-$virtual.json" \
+    "$(dirname "$0")/consultas.js"
+
+  # Fila do Hikari e threads ao final da carga, para confirmar o gargalo
+  curl -s "$BASE_URL/actuator/prometheus" \
+    | grep -E '^(hikaricp_connections_(active|pending|max)|jvm_threads_live_threads)' \
+    > "$RESULTADOS/virtual-$virtual.prom"
+done
+
+printf '\n%-8s %12s %10s %10s %10s %8s\n' virtual req/s p50_ms p95_ms p99_ms falhas
+for virtual in false true; do
+  jq -r --arg v "$virtual" '[
+      $v,
+      (.metrics.http_reqs.rate | floor),
+      (.metrics.http_req_duration["p(50)"] | floor),
+      (.metrics.http_req_duration["p(95)"] | floor),
+      (.metrics.http_req_duration["p(99)"] | floor),
+      .metrics.http_req_failed.value
+    ] | @tsv' "$RESULTADOS/virtual-$virtual.json" \
+    | awk '{ printf "%-8s %12s %10s %10s %10s %8s\n", $1, $2, $3, $4, $5, $6 }'
+done
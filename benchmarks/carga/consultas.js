@@ -0,0 +1,22 @@
+// Teste de carga do consulta-service: cada VU mantém uma conexão aberta e
+// busca consultas em sequência, então VUS é o número de conexões simultâneas.
+import http from "k6/http";
+import { check } from "k6";
+
+const BASE_URL = __ENV.BASE_URL || "http://localhost:8083";
+
+export const options = {
+  scenarios: {
+    conexoes: {
+      executor: "constant-vus",
+      vus: Number(__ENV.VUS || 2000),
+      duration: __ENV.DURACAO || "60s",
+    },
+  },
+  summaryTrendStats: ["avg", "p(50)", "p(95)", "p(99)", "max"],
+};
+
+export default function () {
+  const res = http.get(`${BASE_URL}/consultas?limite=20`);
+  check(res, { "status 200": (r) => r.status === 200 });
+}
@@ -0,0 +1,54 @@
+package br.com.gestao_hospitalar.benchmarks;
+
+import br.com.gestao_hospitalar.consulta_service.models.ConsultaModel;
+import br.com.gestao_hospitalar.paciente_service.entity.Paciente;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dados de exemplo compartilhados entre os benchmarks.
+ */
+final class Fixtures {
+
+  private Fixtures() {}
+
+  static Paciente paciente(UUID id) {
+    Paciente paciente = new Paciente();
+    paciente.setId(id);
+    paciente.setCpf("90769281001");
+    paciente.setEmail("paciente@hospital.com");
+    paciente.setNome("Maria da Silva");
+    paciente.setTelefone("41999999999");
+    paciente.setCep("80060-000");
+    paciente.setLogradouro("Rua XV de Novembro");
+    paciente.setNumero("1299");
+    paciente.setComplemento("Bloco A");
+    paciente.setBairro("Centro");
+    paciente.setCidade("Curitiba");
+    paciente.setEstado("PR");
+    paciente.setPontos(120);
+    return paciente;
+  }
+
+  static List<ConsultaModel> consultas(int quantidade) {
+    List<ConsultaModel> consultas = new ArrayList<>(quantidade);
+    LocalDateTime inicio = LocalDateTime.of(2026, 1, 5, 8, 0);
+    for (int i = 0; i < quantidade; i++) {
+      consultas.add(
+        new ConsultaModel(
+          UUID.randomUUID().toString(),
+          inicio.plusMinutes(30L * i),
+          "CARDIOLOGIA",
+          "Dr. João Souza",
+          250.0,
+          5,
+          3,
+          "DISPONIVEL"
+        )
+      );
+    }
+    return consultas;
+  }
+}
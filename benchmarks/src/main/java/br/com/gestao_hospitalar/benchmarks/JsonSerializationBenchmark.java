@@ -0,0 +1,67 @@
+package br.com.gestao_hospitalar.benchmarks;
+
+import br.com.gestao_hospitalar.consulta_service.models.ConsultaModel;
+import br.com.gestao_hospitalar.paciente_service.dto.ApiResponse;
+import br.com.gestao_hospitalar.paciente_service.dto.PacienteResponseDTO;
+import br.com.gestao_hospitalar.paciente_service.util.ResponseUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Serialização das respostas JSON mais frequentes: listas de consultas e o
+ * envelope ApiResponse do paciente-service.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+  @Param({ "10", "1000" })
+  public int tamanho;
+
+  private ObjectMapper objectMapper;
+  private List<ConsultaModel> consultas;
+  private ApiResponse<List<PacienteResponseDTO>> envelope;
+
+  @Setup
+  public void setup() {
+    // Mesma configuração de datas usada pelo Spring Boot
+    objectMapper = Jackson2ObjectMapperBuilder.json()
+      .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .build();
+
+    consultas = Fixtures.consultas(tamanho);
+
+    List<PacienteResponseDTO> pacientes = new ArrayList<>(tamanho);
+    for (int i = 0; i < tamanho; i++) {
+      pacientes.add(
+        new PacienteResponseDTO(Fixtures.paciente(UUID.randomUUID()))
+      );
+    }
+    envelope = ResponseUtil.ok(
+      "/todos",
+      "Lista de pacientes retornada com sucesso",
+      pacientes
+    );
+  }
+
+  @Benchmark
+  public byte[] listaDeConsultas() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(consultas);
+  }
+
+  @Benchmark
+  public byte[] envelopeApiResponse() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(envelope);
+  }
+}
@@ -0,0 +1,92 @@
+package br.com.gestao_hospitalar.benchmarks;
+
+import br.com.gestao_hospitalar.auth_service.entity.User;
+import br.com.gestao_hospitalar.auth_service.enums.UserType;
+import br.com.gestao_hospitalar.auth_service.security.JwtTokenProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Emissão de token no login (auth-service). {@code generateToken} mede o
+ * caminho atual (cabeçalho pré-codificado, payload montado à mão) em HS256 e
+ * ES256; {@code generateTokenJjwtBuilder} reproduz a implementação anterior,
+ * com o builder do jjwt e a chave derivada a cada token, como referência.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+  static final String SECRET =
+    "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+  @Param({ "HS256", "ES256" })
+  public String algoritmo;
+
+  private JwtTokenProvider provider;
+  private User user;
+
+  @Setup
+  public void setup() throws Exception {
+    provider = new JwtTokenProvider();
+    ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 900000L);
+    ReflectionTestUtils.setField(provider, "algoritmo", algoritmo);
+    if ("ES256".equals(algoritmo)) {
+      KeyPairGenerator gerador = KeyPairGenerator.getInstance("EC");
+      gerador.initialize(new ECGenParameterSpec("secp256r1"));
+      KeyPair par = gerador.generateKeyPair();
+      Base64.Encoder base64 = Base64.getEncoder();
+      ReflectionTestUtils.setField(provider, "kid", "ec-1");
+      ReflectionTestUtils.setField(
+        provider,
+        "chavePrivadaEs256",
+        base64.encodeToString(par.getPrivate().getEncoded())
+      );
+      ReflectionTestUtils.setField(
+        provider,
+        "chavePublicaEs256",
+        base64.encodeToString(par.getPublic().getEncoded())
+      );
+    }
+    provider.init();
+
+    user = new User();
+    user.setId(UUID.randomUUID());
+    user.setCpf("90769281001");
+    user.setEmail("paciente@hospital.com");
+    user.setType(UserType.PACIENTE);
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return provider.generateToken(user);
+  }
+
+  @Benchmark
+  public String generateTokenJjwtBuilder() {
+    return Jwts.builder()
+      .setId(UUID.randomUUID().toString())
+      .setSubject(user.getId().toString())
+      .claim("email", user.getEmail())
+      .claim("cpf", user.getCpf())
+      .claim("type", user.getType())
+      .setIssuedAt(new Date())
+      .setExpiration(new Date(System.currentTimeMillis() + 900000L))
+      .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+      .compact();
+  }
+}
@@ -0,0 +1,66 @@
+package br.com.gestao_hospitalar.benchmarks;
+
+import br.com.gestao_hospitalar.auth_service.entity.User;
+import br.com.gestao_hospitalar.auth_service.enums.UserType;
+import br.com.gestao_hospitalar.auth_service.security.JwtTokenProvider;
+import br.com.gestao_hospitalar.paciente_service.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Validação de token em cada requisição autenticada do paciente-service.
+ * O token se repete entre as chamadas, então mede o acerto do cache de
+ * tokens verificados.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+  private JwtUtil jwtUtil;
+  private String token;
+
+  @Setup
+  public void setup() {
+    jwtUtil = new JwtUtil();
+    ReflectionTestUtils.setField(
+      jwtUtil,
+      "jwtSecret",
+      JwtTokenProviderBenchmark.SECRET
+    );
+    jwtUtil.init();
+
+    JwtTokenProvider provider = new JwtTokenProvider();
+    ReflectionTestUtils.setField(
+      provider,
+      "jwtSecret",
+      JwtTokenProviderBenchmark.SECRET
+    );
+    ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 86400000L);
+    provider.init();
+
+    User user = new User();
+    user.setId(UUID.randomUUID());
+    user.setCpf("90769281001");
+    user.setEmail("paciente@hospital.com");
+    user.setType(UserType.PACIENTE);
+    token = provider.generateToken(user);
+  }
+
+  @Benchmark
+  public Jws<Claims> validateToken() {
+    return jwtUtil.validateToken(token);
+  }
+
+  @Benchmark
+  public boolean isTokenExpired() {
+    return jwtUtil.isTokenExpired(token);
+  }
+}
@@ -0,0 +1,31 @@
+package br.com.gestao_hospitalar.benchmarks;
+
+import br.com.gestao_hospitalar.paciente_service.dto.PacienteResponseDTO;
+import br.com.gestao_hospitalar.paciente_service.entity.Paciente;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Conversão de entidade para DTO usada em todas as respostas de paciente.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PacienteResponseDTOBenchmark {
+
+  private Paciente paciente;
+
+  @Setup
+  public void setup() {
+    paciente = Fixtures.paciente(UUID.randomUUID());
+  }
+
+  @Benchmark
+  public PacienteResponseDTO construir() {
+    return new PacienteResponseDTO(paciente);
+  }
+}
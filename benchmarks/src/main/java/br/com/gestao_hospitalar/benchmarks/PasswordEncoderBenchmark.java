@@ -0,0 +1,45 @@
+package br.com.gestao_hospitalar.benchmarks;
+
+import br.com.gestao_hospitalar.auth_service.security.CustomPasswordEncoder;
+import br.com.gestao_hospitalar.auth_service.security.LegacySha256PasswordHash;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Custo da verificação de senha executada a cada POST /login, no formato
+ * legado "salt:hash" e no PBKDF2 com o custo padrão.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+
+  private CustomPasswordEncoder encoder;
+  private String senhaLegada;
+  private String senhaPbkdf2;
+
+  @Setup
+  public void setup() {
+    encoder = new CustomPasswordEncoder();
+    senhaLegada = new LegacySha256PasswordHash().encode("1234");
+    senhaPbkdf2 = encoder.encode("1234");
+  }
+
+  @Benchmark
+  public boolean matchesLegado() {
+    return encoder.matches("1234", senhaLegada);
+  }
+
+  @Benchmark
+  public boolean matchesPbkdf2() {
+    return encoder.matches("1234", senhaPbkdf2);
+  }
+
+  @Benchmark
+  public boolean matchesSenhaIncorreta() {
+    return encoder.matches("9999", senhaPbkdf2);
+  }
+}
@@ -0,0 +1,37 @@
+package br.com.gestao_hospitalar.benchmarks;
+
+import br.com.gestao_hospitalar.auth_service.security.Pbkdf2PasswordHash;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Distribuição de latência do PBKDF2 por número de iterações, para escolher
+ * o {@code password.pbkdf2.iterations} cujo p99 cabe no orçamento do login.
+ * Use {@code -t <núcleos>} para medir com todos os núcleos ocupados, como em
+ * uma rajada de logins.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashCostBenchmark {
+
+  @Param({ "50000", "100000", "210000", "310000", "600000" })
+  public int iterations;
+
+  private Pbkdf2PasswordHash hash;
+  private String senhaCodificada;
+
+  @Setup
+  public void setup() {
+    hash = new Pbkdf2PasswordHash(iterations);
+    senhaCodificada = hash.encode("1234");
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return hash.matches("1234", senhaCodificada);
+  }
+}
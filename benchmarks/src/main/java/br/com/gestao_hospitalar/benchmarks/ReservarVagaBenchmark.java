@@ -0,0 +1,112 @@
+package br.com.gestao_hospitalar.benchmarks;
+
+import br.com.gestao_hospitalar.consulta_service.models.ConsultaModel;
+import br.com.gestao_hospitalar.consulta_service.repositories.ConsultaRepository;
+import br.com.gestao_hospitalar.consulta_service.services.ConsultaService;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * ConsultaService.reservarVaga sobre um H2 em memória (modo PostgreSQL).
+ * Mede o caminho completo serviço + JPA + JDBC, com e sem concorrência
+ * na mesma consulta.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservarVagaBenchmark {
+
+  private static final String CODIGO_COM_VAGAS = "consulta-com-vagas";
+  private static final String CODIGO_LOTADA = "consulta-lotada";
+  private static final int VAGAS = 1_000_000_000;
+
+  private ConfigurableApplicationContext context;
+  private ConsultaService consultaService;
+  private ConsultaRepository consultaRepository;
+
+  @SpringBootConfiguration
+  @EnableAutoConfiguration
+  @EntityScan(basePackageClasses = ConsultaModel.class)
+  @EnableJpaRepositories(basePackageClasses = ConsultaRepository.class)
+  @Import(ConsultaService.class)
+  static class ConsultaH2Config {}
+
+  @Setup(Level.Trial)
+  public void iniciarContexto() {
+    context = new SpringApplicationBuilder(ConsultaH2Config.class)
+      .web(WebApplicationType.NONE)
+      .properties(
+        "spring.datasource.url=jdbc:h2:mem:consulta;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.main.banner-mode=off",
+        "logging.level.root=WARN"
+      )
+      .run();
+    consultaService = context.getBean(ConsultaService.class);
+    consultaRepository = context.getBean(ConsultaRepository.class);
+  }
+
+  @Setup(Level.Iteration)
+  public void reiniciarVagas() {
+    LocalDateTime data = LocalDateTime.of(2026, 1, 5, 8, 0);
+    consultaRepository.save(
+      new ConsultaModel(
+        CODIGO_COM_VAGAS,
+        data,
+        "CARDIOLOGIA",
+        "Dr. João Souza",
+        250.0,
+        VAGAS,
+        VAGAS,
+        "DISPONIVEL"
+      )
+    );
+    consultaRepository.save(
+      new ConsultaModel(
+        CODIGO_LOTADA,
+        data,
+        "CARDIOLOGIA",
+        "Dr. João Souza",
+        250.0,
+        1,
+        0,
+        "DISPONIVEL"
+      )
+    );
+  }
+
+  @TearDown(Level.Trial)
+  public void fecharContexto() {
+    context.close();
+  }
+
+  @Benchmark
+  public ConsultaModel reservar() {
+    return consultaService.reservarVaga(CODIGO_COM_VAGAS);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public ConsultaModel reservarConcorrente() {
+    return consultaService.reservarVaga(CODIGO_COM_VAGAS);
+  }
+
+  @Benchmark
+  public ConsultaModel reservarLotada() {
+    return consultaService.reservarVaga(CODIGO_LOTADA);
+  }
+}
@@ -2,8 +2,10 @@ package br.com.gestao_hospitalar.consulta_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ConsultaServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,52 @@
+package br.com.gestao_hospitalar.consulta_service.config;
+
+import br.com.gestao_hospitalar.consulta_service.services.EspecialidadeService;
+import br.com.gestao_hospitalar.consulta_service.services.MedicoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preenche os caches do catálogo (especialidades e médicos) na subida do
+ * serviço, para que as telas de agendamento não dependam do banco desde a
+ * primeira requisição.
+ */
+@Component
+public class CatalogoWarmup implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(
+    CatalogoWarmup.class
+  );
+
+  private final EspecialidadeService especialidadeService;
+  private final MedicoService medicoService;
+  private final boolean habilitado;
+
+  public CatalogoWarmup(
+    EspecialidadeService especialidadeService,
+    MedicoService medicoService,
+    @Value("${catalogo.cache.aquecer:true}") boolean habilitado
+  ) {
+    this.especialidadeService = especialidadeService;
+    this.medicoService = medicoService;
+    this.habilitado = habilitado;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!habilitado) {
+      return;
+    }
+
+    try {
+      especialidadeService.aquecer();
+      medicoService.aquecer();
+    } catch (RuntimeException e) {
+      // Sem aquecimento o cache é preenchido sob demanda
+      log.warn("Falha ao aquecer o cache do catálogo", e);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package br.com.gestao_hospitalar.consulta_service.config;
+
+import br.com.gestao_hospitalar.consulta_service.services.VersaoTabelas;
+import br.com.gestao_hospitalar.consulta_service.services.VersaoTabelas.Tabela;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * GET condicional para as listagens de uma tabela. A ETag é formada pela
+ * versão da tabela e pela URL com a query string, então uma listagem
+ * inalterada responde 304 sem executar a consulta. Escritas na mesma tabela
+ * incrementam a versão antes e depois de serem processadas: a segunda
+ * garante que uma leitura feita durante a escrita não fique valendo.
+ */
+public class EtagInterceptor implements HandlerInterceptor {
+
+  private final VersaoTabelas versaoTabelas;
+  private final Tabela tabela;
+
+  public EtagInterceptor(VersaoTabelas versaoTabelas, Tabela tabela) {
+    this.versaoTabelas = versaoTabelas;
+    this.tabela = tabela;
+  }
+
+  @Override
+  public boolean preHandle(
+    HttpServletRequest request,
+    HttpServletResponse response,
+    Object handler
+  ) {
+    if (escrita(request)) {
+      versaoTabelas.incrementar(tabela);
+      return true;
+    }
+    if (!"GET".equals(request.getMethod())) {
+      return true;
+    }
+
+    String url = request.getQueryString() == null
+      ? request.getRequestURI()
+      : request.getRequestURI() + "?" + request.getQueryString();
+    String etag =
+      "W/\"" +
+      versaoTabelas.versao(tabela) +
+      "-" +
+      Integer.toHexString(url.hashCode()) +
+      "\"";
+
+    response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+    return !new ServletWebRequest(request, response).checkNotModified(etag);
+  }
+
+  @Override
+  public void afterCompletion(
+    HttpServletRequest request,
+    HttpServletResponse response,
+    Object handler,
+    Exception ex
+  ) {
+    if (escrita(request)) {
+      versaoTabelas.incrementar(tabela);
+    }
+  }
+
+  private static boolean escrita(HttpServletRequest request) {
+    String metodo = request.getMethod();
+    return (
+      !"GET".equals(metodo) &&
+      !"HEAD".equals(metodo) &&
+      !"OPTIONS".equals(metodo)
+    );
+  }
+}
@@ -38,6 +38,9 @@ public class SecurityConfig {
     config.setAllowCredentials(true);
     config.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
     config.setAllowedHeaders(Arrays.asList("*"));
+    config.setExposedHeaders(
+      Arrays.asList("X-Proximo-Cursor", "Idempotent-Replayed", "ETag")
+    );
     config.setAllowedMethods(
       Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS")
     );
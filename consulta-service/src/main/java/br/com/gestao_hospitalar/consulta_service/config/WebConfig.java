@@ -0,0 +1,35 @@
+package br.com.gestao_hospitalar.consulta_service.config;
+
+import br.com.gestao_hospitalar.consulta_service.services.VersaoTabelas;
+import br.com.gestao_hospitalar.consulta_service.services.VersaoTabelas.Tabela;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+  private final VersaoTabelas versaoTabelas;
+
+  public WebConfig(VersaoTabelas versaoTabelas) {
+    this.versaoTabelas = versaoTabelas;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry
+      .addInterceptor(new EtagInterceptor(versaoTabelas, Tabela.CONSULTA))
+      .addPathPatterns("/consultas", "/consultas/**")
+      // Contador em memória, não depende da tabela
+      .excludePathPatterns("/consultas/reservas/recusadas");
+    registry
+      .addInterceptor(new EtagInterceptor(versaoTabelas, Tabela.MEDICO))
+      .addPathPatterns("/medicos", "/medicos/**", "/crm/**");
+    registry
+      .addInterceptor(new EtagInterceptor(versaoTabelas, Tabela.ESPECIALIDADE))
+      .addPathPatterns("/especialidades", "/especialidades/**");
+    registry
+      .addInterceptor(new EtagInterceptor(versaoTabelas, Tabela.AGENDAMENTO))
+      .addPathPatterns("/agendamentos", "/agendamentos/**");
+  }
+}
@@ -1,7 +1,12 @@
 package br.com.gestao_hospitalar.consulta_service.controller;
 
+import br.com.gestao_hospitalar.consulta_service.dto.AtualizacaoStatusLoteDTO;
+import br.com.gestao_hospitalar.consulta_service.dto.ResultadoStatusDTO;
 import br.com.gestao_hospitalar.consulta_service.models.AgendamentoModel;
 import br.com.gestao_hospitalar.consulta_service.services.AgendamentoService;
+import br.com.gestao_hospitalar.consulta_service.services.IdempotenciaService;
+import br.com.gestao_hospitalar.consulta_service.services.StatusLoteService;
+import io.micrometer.core.annotation.Timed;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +16,19 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@Timed(value = "http.controller", histogram = true)
 @RequestMapping("")
 public class AgendamentoController {
 
   @Autowired
   private AgendamentoService agendamentoService;
 
+  @Autowired
+  private IdempotenciaService idempotenciaService;
+
+  @Autowired
+  private StatusLoteService statusLoteService;
+
   @GetMapping("/agendamentos")
   public ResponseEntity<List<AgendamentoModel>> findAll(
     @RequestParam(required = false) String status,
@@ -61,11 +73,26 @@ public class AgendamentoController {
   }
 
   @PostMapping("/agendamentos")
-  public ResponseEntity<AgendamentoModel> create(
+  public ResponseEntity<?> create(
+    @RequestHeader(value = "Idempotency-Key", required = false) String chave,
+    @RequestHeader(value = "x-user-id", required = false) String usuario,
     @RequestBody AgendamentoModel agendamento
   ) {
-    return ResponseEntity.status(HttpStatus.CREATED).body(
-      agendamentoService.save(agendamento)
+    if (chave == null || chave.isBlank()) {
+      return ResponseEntity.status(HttpStatus.CREATED).body(
+        agendamentoService.save(agendamento)
+      );
+    }
+    if (chave.length() > 255) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    // A chave vale por usuário: clientes diferentes podem gerar o mesmo valor
+    return idempotenciaService.executar(
+      "agendamentos:" + (usuario != null ? usuario : "") + ":" + chave,
+      agendamento,
+      HttpStatus.CREATED,
+      () -> agendamentoService.save(agendamento)
     );
   }
 
@@ -82,6 +109,17 @@ public class AgendamentoController {
     return ResponseEntity.ok(agendamentoService.save(agendamento));
   }
 
+  /**
+   * Muda o status de vários agendamentos de uma vez. Devolve o resultado por
+   * id; ids inexistentes ou com transição não permitida não impedem os demais.
+   */
+  @PatchMapping("/agendamentos/status")
+  public ResponseEntity<List<ResultadoStatusDTO>> atualizarStatusEmLote(
+    @RequestBody AtualizacaoStatusLoteDTO pedido
+  ) {
+    return ResponseEntity.ok(statusLoteService.atualizarAgendamentos(pedido));
+  }
+
   @PatchMapping("/agendamentos/status/{id}")
   public ResponseEntity<AgendamentoModel> atualizarStatus(
     @PathVariable String id,
@@ -1,9 +1,18 @@
 package br.com.gestao_hospitalar.consulta_service.controller;
 
+import br.com.gestao_hospitalar.consulta_service.dto.AtualizacaoStatusLoteDTO;
+import br.com.gestao_hospitalar.consulta_service.dto.RecorrenciaAgendaDTO;
+import br.com.gestao_hospitalar.consulta_service.dto.ResultadoRecorrenciaDTO;
+import br.com.gestao_hospitalar.consulta_service.dto.ResultadoStatusDTO;
 import br.com.gestao_hospitalar.consulta_service.models.ConsultaModel;
+import br.com.gestao_hospitalar.consulta_service.services.AgendaRecorrenteService;
 import br.com.gestao_hospitalar.consulta_service.services.ConsultaService;
+import br.com.gestao_hospitalar.consulta_service.services.PaginaConsultas;
+import br.com.gestao_hospitalar.consulta_service.services.StatusLoteService;
+import io.micrometer.core.annotation.Timed;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -11,52 +20,51 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@Timed(value = "http.controller", histogram = true)
 @RequestMapping("")
 public class ConsultaController {
 
   @Autowired
   private ConsultaService consultaService;
 
+  @Autowired
+  private AgendaRecorrenteService agendaRecorrenteService;
+
+  @Autowired
+  private StatusLoteService statusLoteService;
+
   @GetMapping("/consultas")
   public ResponseEntity<List<ConsultaModel>> findAll(
     @RequestParam(required = false) String especialidade,
     @RequestParam(required = false) String medico,
     @RequestParam(required = false) String status,
-    @RequestParam(required = false) Boolean disponiveis
+    @RequestParam(required = false) Boolean disponiveis,
+    @RequestParam(required = false) @DateTimeFormat(
+      iso = DateTimeFormat.ISO.DATE_TIME
+    ) LocalDateTime inicio,
+    @RequestParam(required = false) @DateTimeFormat(
+      iso = DateTimeFormat.ISO.DATE_TIME
+    ) LocalDateTime fim,
+    @RequestParam(required = false) String cursor,
+    @RequestParam(required = false) Integer limite
   ) {
-    if (Boolean.TRUE.equals(disponiveis)) {
-      return ResponseEntity.ok(consultaService.findConsultasDisponiveis());
-    }
-
-    if (
-      especialidade != null &&
-      !especialidade.isEmpty() &&
-      Boolean.TRUE.equals(disponiveis)
-    ) {
-      return ResponseEntity.ok(
-        consultaService.findConsultasDisponiveisByEspecialidade(especialidade)
-      );
-    } else if (especialidade != null && !especialidade.isEmpty()) {
-      return ResponseEntity.ok(
-        consultaService.findByEspecialidade(especialidade)
-      );
-    }
-
-    if (
-      medico != null && !medico.isEmpty() && Boolean.TRUE.equals(disponiveis)
-    ) {
-      return ResponseEntity.ok(
-        consultaService.findConsultasDisponiveisByMedico(medico)
-      );
-    } else if (medico != null && !medico.isEmpty()) {
-      return ResponseEntity.ok(consultaService.findByMedico(medico));
-    }
+    PaginaConsultas pagina = consultaService.buscar(
+      especialidade,
+      medico,
+      status,
+      inicio,
+      fim,
+      disponiveis,
+      cursor,
+      limite
+    );
 
-    if (status != null && !status.isEmpty()) {
-      return ResponseEntity.ok(consultaService.findByStatus(status));
+    // O cursor da próxima página vai no header para manter o corpo como lista
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (pagina.getProximoCursor() != null) {
+      response.header("X-Proximo-Cursor", pagina.getProximoCursor());
     }
-
-    return ResponseEntity.ok(consultaService.findAll());
+    return response.body(pagina.getConsultas());
   }
 
   @GetMapping("/consultas/{codigo}")
@@ -90,6 +98,15 @@ public class ConsultaController {
     );
   }
 
+  @PostMapping("/consultas/recorrencia")
+  public ResponseEntity<ResultadoRecorrenciaDTO> gerarAgenda(
+    @RequestBody RecorrenciaAgendaDTO regra
+  ) {
+    return ResponseEntity.status(HttpStatus.CREATED).body(
+      agendaRecorrenteService.gerar(regra)
+    );
+  }
+
   @PutMapping("/consultas/{codigo}")
   public ResponseEntity<ConsultaModel> update(
     @PathVariable String codigo,
@@ -103,6 +120,18 @@ public class ConsultaController {
     return ResponseEntity.ok(consultaService.save(consulta));
   }
 
+  /**
+   * Muda o status de várias consultas de uma vez. Devolve o resultado por
+   * código; códigos inexistentes ou com transição não permitida não impedem
+   * os demais.
+   */
+  @PatchMapping("/consultas/status")
+  public ResponseEntity<List<ResultadoStatusDTO>> atualizarStatusEmLote(
+    @RequestBody AtualizacaoStatusLoteDTO pedido
+  ) {
+    return ResponseEntity.ok(statusLoteService.atualizarConsultas(pedido));
+  }
+
   @PatchMapping("/consultas/status/{codigo}")
   public ResponseEntity<ConsultaModel> atualizarStatus(
     @PathVariable String codigo,
@@ -155,6 +184,13 @@ public class ConsultaController {
     return ResponseEntity.badRequest().build();
   }
 
+  @GetMapping("/consultas/reservas/recusadas")
+  public ResponseEntity<Map<String, Long>> reservasRecusadas() {
+    return ResponseEntity.ok(
+      Map.of("recusadas", consultaService.getReservasRecusadas())
+    );
+  }
+
   @DeleteMapping("/consultas/{codigo}")
   public ResponseEntity<Void> delete(@PathVariable String codigo) {
     if (!consultaService.findByCodigo(codigo).isPresent()) {
@@ -1,7 +1,10 @@
 package br.com.gestao_hospitalar.consulta_service.controller;
 
+import br.com.gestao_hospitalar.consulta_service.dto.SugestaoDTO;
 import br.com.gestao_hospitalar.consulta_service.models.EspecialidadeModel;
+import br.com.gestao_hospitalar.consulta_service.services.BuscaCatalogoService;
 import br.com.gestao_hospitalar.consulta_service.services.EspecialidadeService;
+import io.micrometer.core.annotation.Timed;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -9,12 +12,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@Timed(value = "http.controller", histogram = true)
 @RequestMapping("")
 public class EspecialidadeController {
 
   @Autowired
   private EspecialidadeService especialidadeService;
 
+  @Autowired
+  private BuscaCatalogoService buscaCatalogoService;
+
   @GetMapping("/especialidades")
   public ResponseEntity<List<EspecialidadeModel>> findAll(
     @RequestParam(required = false) String nome
@@ -26,6 +33,21 @@ public class EspecialidadeController {
     return ResponseEntity.ok(especialidadeService.findAll());
   }
 
+  /**
+   * Autocompletar de especialidades: nomes que começam pelo termo primeiro,
+   * depois os semelhantes.
+   */
+  @GetMapping("/especialidades/busca")
+  public ResponseEntity<List<SugestaoDTO>> buscar(
+    @RequestParam String q,
+    @RequestParam(required = false) Integer page,
+    @RequestParam(required = false) Integer size
+  ) {
+    return ResponseEntity.ok(
+      buscaCatalogoService.buscarEspecialidades(q, page, size)
+    );
+  }
+
   @GetMapping("/especialidades/{codigo}")
   public ResponseEntity<EspecialidadeModel> findByCodigo(
     @PathVariable String codigo
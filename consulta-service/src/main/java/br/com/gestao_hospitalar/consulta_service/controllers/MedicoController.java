@@ -1,7 +1,10 @@
 package br.com.gestao_hospitalar.consulta_service.controller;
 
+import br.com.gestao_hospitalar.consulta_service.dto.SugestaoDTO;
 import br.com.gestao_hospitalar.consulta_service.models.MedicoModel;
+import br.com.gestao_hospitalar.consulta_service.services.BuscaCatalogoService;
 import br.com.gestao_hospitalar.consulta_service.services.MedicoService;
+import io.micrometer.core.annotation.Timed;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,12 +13,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@Timed(value = "http.controller", histogram = true)
 @RequestMapping("")
 public class MedicoController {
 
   @Autowired
   private MedicoService medicoService;
 
+  @Autowired
+  private BuscaCatalogoService buscaCatalogoService;
+
   @GetMapping("/medicos")
   public ResponseEntity<List<MedicoModel>> findAll(
     @RequestParam(required = false) String especialidade,
@@ -36,6 +43,19 @@ public class MedicoController {
     return ResponseEntity.ok(medicoService.findAll());
   }
 
+  /**
+   * Autocompletar de médicos ativos pelo nome; o detalhe de cada sugestão é a
+   * especialidade.
+   */
+  @GetMapping("/medicos/busca")
+  public ResponseEntity<List<SugestaoDTO>> buscar(
+    @RequestParam String q,
+    @RequestParam(required = false) Integer page,
+    @RequestParam(required = false) Integer size
+  ) {
+    return ResponseEntity.ok(buscaCatalogoService.buscarMedicos(q, page, size));
+  }
+
   @GetMapping("/medicos/{id}")
   public ResponseEntity<MedicoModel> findById(@PathVariable UUID id) {
     return medicoService
@@ -0,0 +1,9 @@
+package br.com.gestao_hospitalar.consulta_service.dto;
+
+import java.util.List;
+
+/**
+ * Pedido de mudança de status em lote: todos os {@code ids} vão para o mesmo
+ * {@code status}.
+ */
+public record AtualizacaoStatusLoteDTO(List<String> ids, String status) {}
@@ -0,0 +1,26 @@
+package br.com.gestao_hospitalar.consulta_service.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * Regra de recorrência para abrir a agenda de um médico: um horário a cada
+ * {@code duracaoMinutos} entre {@code horaInicio} e {@code horaFim}, nos
+ * {@code diasSemana} informados, de {@code dataInicio} até {@code dataFim}
+ * (inclusive).
+ */
+public record RecorrenciaAgendaDTO(
+  String medico,
+  String especialidade,
+  Set<DayOfWeek> diasSemana,
+  LocalTime horaInicio,
+  LocalTime horaFim,
+  int duracaoMinutos,
+  int vagas,
+  double valor,
+  LocalDate dataInicio,
+  LocalDate dataFim,
+  String status
+) {}
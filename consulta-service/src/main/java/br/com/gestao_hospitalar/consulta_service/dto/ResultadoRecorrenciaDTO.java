@@ -0,0 +1,13 @@
+package br.com.gestao_hospitalar.consulta_service.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultado da geração de agenda: quantas consultas foram criadas e quais
+ * horários foram ignorados por já existirem para o médico.
+ */
+public record ResultadoRecorrenciaDTO(
+  int criadas,
+  List<LocalDateTime> horariosDuplicados
+) {}
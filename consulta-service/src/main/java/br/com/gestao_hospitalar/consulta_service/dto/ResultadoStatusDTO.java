@@ -0,0 +1,18 @@
+package br.com.gestao_hospitalar.consulta_service.dto;
+
+/**
+ * Resultado da mudança de status de um id dentro do lote.
+ * {@code statusAnterior} é nulo quando o registro não existe.
+ */
+public record ResultadoStatusDTO(
+  String id,
+  Resultado resultado,
+  String statusAnterior
+) {
+  public enum Resultado {
+    ATUALIZADO,
+    INALTERADO,
+    NAO_ENCONTRADO,
+    TRANSICAO_NAO_PERMITIDA,
+  }
+}
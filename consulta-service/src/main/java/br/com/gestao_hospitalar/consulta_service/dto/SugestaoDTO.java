@@ -0,0 +1,7 @@
+package br.com.gestao_hospitalar.consulta_service.dto;
+
+/**
+ * Item do autocompletar: o identificador para selecionar, o nome exibido e
+ * um detalhe para diferenciar nomes parecidos (a especialidade do médico).
+ */
+public record SugestaoDTO(String id, String nome, String detalhe) {}
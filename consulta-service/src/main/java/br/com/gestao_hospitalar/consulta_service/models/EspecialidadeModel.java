@@ -1,13 +1,18 @@
 package br.com.gestao_hospitalar.consulta_service.models;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "especialidade")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "especialidade")
 public class EspecialidadeModel {
 
   @Id
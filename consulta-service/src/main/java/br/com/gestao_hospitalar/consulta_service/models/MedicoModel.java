@@ -2,9 +2,13 @@ package br.com.gestao_hospitalar.consulta_service.models;
 
 import jakarta.persistence.*;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "medico")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "medico")
 public class MedicoModel {
 
   @Id
@@ -0,0 +1,50 @@
+package br.com.gestao_hospitalar.consulta_service.models;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Status de um agendamento e as transições permitidas entre eles.
+ * REALIZADO, FALTOU e CANCELADO são finais.
+ */
+public enum StatusAgendamento {
+  AGENDADO,
+  CHECK_IN,
+  REALIZADO,
+  FALTOU,
+  CANCELADO;
+
+  private static final Map<StatusAgendamento, Set<StatusAgendamento>> TRANSICOES =
+    new EnumMap<>(StatusAgendamento.class);
+
+  static {
+    TRANSICOES.put(AGENDADO, EnumSet.of(CHECK_IN, REALIZADO, FALTOU, CANCELADO));
+    TRANSICOES.put(CHECK_IN, EnumSet.of(REALIZADO, CANCELADO));
+    TRANSICOES.put(REALIZADO, EnumSet.noneOf(StatusAgendamento.class));
+    TRANSICOES.put(FALTOU, EnumSet.noneOf(StatusAgendamento.class));
+    TRANSICOES.put(CANCELADO, EnumSet.noneOf(StatusAgendamento.class));
+  }
+
+  public boolean podeMudarPara(StatusAgendamento destino) {
+    return TRANSICOES.get(this).contains(destino);
+  }
+
+  /**
+   * Converte o valor gravado na coluna status; vazio para valores fora do
+   * enum (registros antigos aceitavam qualquer texto).
+   */
+  public static Optional<StatusAgendamento> de(String valor) {
+    if (valor == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(valueOf(valor.trim().toUpperCase(Locale.ROOT)));
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+}
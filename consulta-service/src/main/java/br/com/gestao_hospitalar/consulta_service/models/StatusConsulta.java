@@ -0,0 +1,49 @@
+package br.com.gestao_hospitalar.consulta_service.models;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Status de uma consulta (horário na agenda do médico) e as transições
+ * permitidas entre eles. CANCELADA, REALIZADA e ENCERRADA são finais;
+ * ENCERRADA é aplicada pelo fechamento automático de horários passados.
+ */
+public enum StatusConsulta {
+  DISPONIVEL,
+  CANCELADA,
+  REALIZADA,
+  ENCERRADA;
+
+  private static final Map<StatusConsulta, Set<StatusConsulta>> TRANSICOES =
+    new EnumMap<>(StatusConsulta.class);
+
+  static {
+    TRANSICOES.put(DISPONIVEL, EnumSet.of(CANCELADA, REALIZADA, ENCERRADA));
+    TRANSICOES.put(CANCELADA, EnumSet.noneOf(StatusConsulta.class));
+    TRANSICOES.put(REALIZADA, EnumSet.noneOf(StatusConsulta.class));
+    TRANSICOES.put(ENCERRADA, EnumSet.noneOf(StatusConsulta.class));
+  }
+
+  public boolean podeMudarPara(StatusConsulta destino) {
+    return TRANSICOES.get(this).contains(destino);
+  }
+
+  /**
+   * Converte o valor gravado na coluna status; vazio para valores fora do
+   * enum.
+   */
+  public static Optional<StatusConsulta> de(String valor) {
+    if (valor == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(valueOf(valor.trim().toUpperCase(Locale.ROOT)));
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+}
@@ -2,6 +2,10 @@ package br.com.gestao_hospitalar.consulta_service.repositories;
 
 import br.com.gestao_hospitalar.consulta_service.models.ConsultaModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -11,7 +15,7 @@ import java.util.List;
  * Repository para operações de persistência de Consulta
  */
 @Repository
-public interface ConsultaRepository extends JpaRepository<ConsultaModel, String> {
+public interface ConsultaRepository extends JpaRepository<ConsultaModel, String>, JpaSpecificationExecutor<ConsultaModel> {
     
     /**
      * Busca consultas por especialidade
@@ -47,4 +51,25 @@ public interface ConsultaRepository extends JpaRepository<ConsultaModel, String>
     * Busca consultas com vagas disponíveis
     */
     List<ConsultaModel> findByVagasDisponiveisGreaterThan(int minVagas);
+
+    /**
+     * Reserva uma vaga de forma atômica: verifica e decrementa no mesmo UPDATE,
+     * evitando overbooking sob concorrência
+     *
+     * @return quantidade de linhas afetadas (0 se não houver vaga ou a consulta não existir)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ConsultaModel c SET c.vagasDisponiveis = c.vagasDisponiveis - 1 " +
+           "WHERE c.codigo = :codigo AND c.vagasDisponiveis > 0")
+    int decrementarVagaDisponivel(@Param("codigo") String codigo);
+
+    /**
+     * Libera uma vaga de forma atômica, sem ultrapassar o total de vagas
+     *
+     * @return quantidade de linhas afetadas (0 se a consulta já estiver com todas as vagas livres ou não existir)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ConsultaModel c SET c.vagasDisponiveis = c.vagasDisponiveis + 1 " +
+           "WHERE c.codigo = :codigo AND c.vagasDisponiveis < c.vagasTotal")
+    int incrementarVagaDisponivel(@Param("codigo") String codigo);
 }
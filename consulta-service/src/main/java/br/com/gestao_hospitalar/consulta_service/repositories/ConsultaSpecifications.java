@@ -0,0 +1,84 @@
+package br.com.gestao_hospitalar.consulta_service.repositories;
+
+import br.com.gestao_hospitalar.consulta_service.models.ConsultaModel;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filtros combináveis para a busca de consultas. Cada método devolve
+ * {@code null} quando o filtro não foi informado, o que o Spring Data
+ * ignora ao compor as especificações.
+ */
+public final class ConsultaSpecifications {
+
+  private ConsultaSpecifications() {}
+
+  public static Specification<ConsultaModel> comEspecialidade(
+    String especialidade
+  ) {
+    if (especialidade == null || especialidade.isEmpty()) {
+      return null;
+    }
+    return (root, query, cb) -> cb.equal(root.get("especialidade"), especialidade);
+  }
+
+  public static Specification<ConsultaModel> comMedico(String medico) {
+    if (medico == null || medico.isEmpty()) {
+      return null;
+    }
+    return (root, query, cb) -> cb.equal(root.get("medico"), medico);
+  }
+
+  public static Specification<ConsultaModel> comStatus(String status) {
+    if (status == null || status.isEmpty()) {
+      return null;
+    }
+    return (root, query, cb) -> cb.equal(root.get("status"), status);
+  }
+
+  public static Specification<ConsultaModel> aPartirDe(LocalDateTime inicio) {
+    if (inicio == null) {
+      return null;
+    }
+    return (root, query, cb) ->
+      cb.greaterThanOrEqualTo(root.<LocalDateTime>get("data"), inicio);
+  }
+
+  public static Specification<ConsultaModel> ate(LocalDateTime fim) {
+    if (fim == null) {
+      return null;
+    }
+    return (root, query, cb) ->
+      cb.lessThanOrEqualTo(root.<LocalDateTime>get("data"), fim);
+  }
+
+  public static Specification<ConsultaModel> comVagasDisponiveis(
+    Boolean disponiveis
+  ) {
+    if (!Boolean.TRUE.equals(disponiveis)) {
+      return null;
+    }
+    return (root, query, cb) -> cb.greaterThan(root.get("vagasDisponiveis"), 0);
+  }
+
+  /**
+   * Paginação por keyset: retorna apenas as consultas posteriores ao cursor
+   * na ordenação (data, codigo)
+   */
+  public static Specification<ConsultaModel> aposCursor(
+    LocalDateTime data,
+    String codigo
+  ) {
+    if (data == null || codigo == null) {
+      return null;
+    }
+    return (root, query, cb) ->
+      cb.or(
+        cb.greaterThan(root.<LocalDateTime>get("data"), data),
+        cb.and(
+          cb.equal(root.get("data"), data),
+          cb.greaterThan(root.<String>get("codigo"), codigo)
+        )
+      );
+  }
+}
@@ -2,6 +2,8 @@ package br.com.gestao_hospitalar.consulta_service.repositories;
 
 import br.com.gestao_hospitalar.consulta_service.models.EspecialidadeModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,7 +15,21 @@ import java.util.List;
 public interface EspecialidadeRepository extends JpaRepository<EspecialidadeModel, String> {
     
     /**
-     * Busca especialidades pelo nome (parcial, case insensitive)
+     * Busca especialidades pelo nome (parcial, case insensitive). ILIKE usa o
+     * índice trigram; o padrão deve vir com os curingas do LIKE escapados.
      */
-    List<EspecialidadeModel> findByNomeContainingIgnoreCase(String nome);
-}
\ No newline at end of file
+    @Query(value = "SELECT * FROM especialidade WHERE nome ILIKE '%' || :trecho || '%' ESCAPE '\\'",
+            nativeQuery = true)
+    List<EspecialidadeModel> findByNomeContendo(@Param("trecho") String trecho);
+
+    /**
+     * Busca aproximada para o autocompletar quando nenhum nome começa pelo
+     * termo (erros de digitação, trechos no meio do nome). Ordena pela
+     * semelhança com a palavra mais próxima do nome.
+     */
+    @Query(value = "SELECT * FROM especialidade WHERE :termo <% nome OR nome ILIKE '%' || :trecho || '%' ESCAPE '\\' " +
+            "ORDER BY word_similarity(:termo, nome) DESC, nome LIMIT :limite OFFSET :offset",
+            nativeQuery = true)
+    List<EspecialidadeModel> buscarSemelhantes(@Param("termo") String termo, @Param("trecho") String trecho,
+                                               @Param("limite") int limite, @Param("offset") int offset);
+}
@@ -1,14 +1,24 @@
 package br.com.gestao_hospitalar.consulta_service.repositories;
 
 import br.com.gestao_hospitalar.consulta_service.models.MedicoModel;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository para operações de persistência de Medico
+ *
+ * As buscas derivadas usam o cache de consultas do Hibernate (região
+ * "medico-consultas"): o resultado guarda apenas os ids, e as entidades vêm do
+ * cache de segundo nível da região "medico". Qualquer escrita na tabela medico
+ * feita pelo Hibernate invalida os resultados em cache.
  */
 @Repository
 public interface MedicoRepository extends JpaRepository<MedicoModel, UUID> {
@@ -20,23 +30,81 @@ public interface MedicoRepository extends JpaRepository<MedicoModel, UUID> {
    * @param especialidade código da especialidade médica
    * @return lista de médicos que pertencem à especialidade informada
    */
+  @QueryHints(
+    {
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(
+        name = HibernateHints.HINT_CACHE_REGION,
+        value = "medico-consultas"
+      ),
+    }
+  )
   List<MedicoModel> findByEspecialidade(String especialidade);
 
   /**
    * Busca médico por CRM
    */
+  @QueryHints(
+    {
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(
+        name = HibernateHints.HINT_CACHE_REGION,
+        value = "medico-consultas"
+      ),
+    }
+  )
   Optional<MedicoModel> findByCrm(String crm);
 
   /**
    * Busca médicos ativos
    */
+  @QueryHints(
+    {
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(
+        name = HibernateHints.HINT_CACHE_REGION,
+        value = "medico-consultas"
+      ),
+    }
+  )
   List<MedicoModel> findByAtivo(Boolean ativo);
 
   /**
    * Busca médicos por especialidade e que estejam ativos
    */
+  @QueryHints(
+    {
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(
+        name = HibernateHints.HINT_CACHE_REGION,
+        value = "medico-consultas"
+      ),
+    }
+  )
   List<MedicoModel> findByEspecialidadeAndAtivo(
     String especialidade,
     Boolean ativo
   );
+
+  /**
+   * Autocompletar de médicos ativos pelo nome, atendido pelo índice trigram.
+   * Nomes que começam pelo termo vêm primeiro, depois os mais semelhantes
+   * (inclusive com erros de digitação). {@code trecho} deve vir com os
+   * curingas do LIKE escapados.
+   */
+  @Query(
+    value = """
+    SELECT * FROM medico
+    WHERE ativo AND (nome ILIKE '%' || :trecho || '%' ESCAPE '\\' OR :termo <% nome)
+    ORDER BY nome ILIKE :trecho || '%' ESCAPE '\\' DESC, word_similarity(:termo, nome) DESC, nome
+    LIMIT :limite OFFSET :offset
+    """,
+    nativeQuery = true
+  )
+  List<MedicoModel> buscarAtivosPorNome(
+    @Param("termo") String termo,
+    @Param("trecho") String trecho,
+    @Param("limite") int limite,
+    @Param("offset") int offset
+  );
 }
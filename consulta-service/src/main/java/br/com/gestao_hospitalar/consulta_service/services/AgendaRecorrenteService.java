@@ -0,0 +1,139 @@
+package br.com.gestao_hospitalar.consulta_service.services;
+
+import br.com.gestao_hospitalar.consulta_service.dto.RecorrenciaAgendaDTO;
+import br.com.gestao_hospitalar.consulta_service.dto.ResultadoRecorrenciaDTO;
+import br.com.gestao_hospitalar.consulta_service.models.StatusConsulta;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Gera a agenda de um médico a partir de uma regra de recorrência. Os
+ * horários são expandidos em memória e inseridos em lotes JDBC na mesma
+ * transação, sem passar pelo merge do JPA.
+ */
+@Service
+public class AgendaRecorrenteService {
+
+    static final int LIMITE_HORARIOS = 20_000;
+    private static final int TAMANHO_LOTE = 1000;
+
+    private static final String INSERT =
+            "INSERT INTO consulta (codigo, data, especialidade, medico, valor, vagas_total, vagas_disponiveis, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AgendaRecorrenteService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public ResultadoRecorrenciaDTO gerar(RecorrenciaAgendaDTO regra) {
+        List<LocalDateTime> horarios = expandir(regra);
+        if (horarios.isEmpty()) {
+            return new ResultadoRecorrenciaDTO(0, List.of());
+        }
+
+        // Serializa gerações concorrentes para o mesmo médico até o commit,
+        // para que a checagem de duplicados abaixo continue válida
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> null, regra.medico());
+
+        Set<LocalDateTime> existentes = new HashSet<>(jdbcTemplate.query(
+                "SELECT data FROM consulta WHERE medico = ? AND data BETWEEN ? AND ?",
+                (rs, i) -> rs.getTimestamp(1).toLocalDateTime(),
+                regra.medico(),
+                Timestamp.valueOf(horarios.get(0)),
+                Timestamp.valueOf(horarios.get(horarios.size() - 1))));
+
+        List<LocalDateTime> novos = new ArrayList<>(horarios.size());
+        List<LocalDateTime> duplicados = new ArrayList<>();
+        for (LocalDateTime horario : horarios) {
+            (existentes.contains(horario) ? duplicados : novos).add(horario);
+        }
+
+        String status = status(regra).name();
+        jdbcTemplate.batchUpdate(INSERT, novos, TAMANHO_LOTE, (ps, horario) -> {
+            ps.setString(1, UUID.randomUUID().toString());
+            ps.setTimestamp(2, Timestamp.valueOf(horario));
+            ps.setString(3, regra.especialidade());
+            ps.setString(4, regra.medico());
+            ps.setDouble(5, regra.valor());
+            ps.setInt(6, regra.vagas());
+            ps.setInt(7, regra.vagas());
+            ps.setString(8, status);
+        });
+
+        return new ResultadoRecorrenciaDTO(novos.size(), duplicados);
+    }
+
+    /**
+     * Expande a regra em horários ordenados. Apenas horários que terminam
+     * até {@code horaFim} são gerados.
+     */
+    static List<LocalDateTime> expandir(RecorrenciaAgendaDTO regra) {
+        validar(regra);
+
+        int inicio = regra.horaInicio().toSecondOfDay() / 60;
+        int fim = regra.horaFim().toSecondOfDay() / 60;
+        int duracao = regra.duracaoMinutos();
+
+        List<LocalDateTime> horarios = new ArrayList<>();
+        for (LocalDate dia = regra.dataInicio(); !dia.isAfter(regra.dataFim()); dia = dia.plusDays(1)) {
+            if (!regra.diasSemana().contains(dia.getDayOfWeek())) {
+                continue;
+            }
+            for (int minuto = inicio; minuto + duracao <= fim; minuto += duracao) {
+                if (horarios.size() == LIMITE_HORARIOS) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "A regra gera mais de " + LIMITE_HORARIOS + " horários");
+                }
+                horarios.add(LocalDateTime.of(dia, LocalTime.ofSecondOfDay(minuto * 60L)));
+            }
+        }
+        return horarios;
+    }
+
+    /**
+     * Status dos horários gerados; DISPONIVEL quando a regra não informa.
+     */
+    static StatusConsulta status(RecorrenciaAgendaDTO regra) {
+        if (regra.status() == null || regra.status().isBlank()) {
+            return StatusConsulta.DISPONIVEL;
+        }
+        return StatusConsulta.de(regra.status())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Status inválido: " + regra.status()));
+    }
+
+    private static void validar(RecorrenciaAgendaDTO regra) {
+        if (regra.medico() == null || regra.medico().isBlank()
+                || regra.especialidade() == null || regra.especialidade().isBlank()
+                || regra.diasSemana() == null || regra.diasSemana().isEmpty()
+                || regra.horaInicio() == null || regra.horaFim() == null
+                || regra.dataInicio() == null || regra.dataFim() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Médico, especialidade, dias da semana, horários e período são obrigatórios");
+        }
+        if (!regra.horaFim().isAfter(regra.horaInicio()) || regra.dataFim().isBefore(regra.dataInicio())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Período ou faixa de horário inválidos");
+        }
+        if (regra.duracaoMinutos() <= 0 || regra.vagas() <= 0 || regra.valor() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Duração e vagas devem ser positivas e o valor não pode ser negativo");
+        }
+        status(regra);
+    }
+}
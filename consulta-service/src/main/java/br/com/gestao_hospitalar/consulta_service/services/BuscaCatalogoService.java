@@ -0,0 +1,95 @@
+package br.com.gestao_hospitalar.consulta_service.services;
+
+import br.com.gestao_hospitalar.consulta_service.dto.SugestaoDTO;
+import br.com.gestao_hospitalar.consulta_service.models.EspecialidadeModel;
+import br.com.gestao_hospitalar.consulta_service.repositories.EspecialidadeRepository;
+import br.com.gestao_hospitalar.consulta_service.repositories.MedicoRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Autocompletar de especialidades e médicos pelo nome, com resultados
+ * ordenados por relevância e paginados.
+ *
+ * <p>O catálogo de especialidades é pequeno e já fica em memória no
+ * {@link EspecialidadeService}; a busca por prefixo é feita numa árvore
+ * montada sobre essa lista, sem ir ao banco. Só quando nenhum nome casa
+ * com o prefixo (erro de digitação, trecho no meio da palavra) a busca cai
+ * para o índice trigram. Médicos são buscados direto pelo índice trigram.
+ */
+@Service
+public class BuscaCatalogoService {
+
+    static final int TAMANHO_PADRAO = 10;
+    static final int TAMANHO_MAXIMO = 20;
+
+    private final EspecialidadeService especialidadeService;
+    private final EspecialidadeRepository especialidadeRepository;
+    private final MedicoRepository medicoRepository;
+
+    private volatile Indexado indexado;
+
+    public BuscaCatalogoService(EspecialidadeService especialidadeService,
+                                EspecialidadeRepository especialidadeRepository,
+                                MedicoRepository medicoRepository) {
+        this.especialidadeService = especialidadeService;
+        this.especialidadeRepository = especialidadeRepository;
+        this.medicoRepository = medicoRepository;
+    }
+
+    public List<SugestaoDTO> buscarEspecialidades(String termo, Integer page, Integer size) {
+        String limpo = TextoBusca.limpar(termo);
+        if (limpo.isEmpty()) {
+            return List.of();
+        }
+        int tamanho = tamanho(size);
+        int offset = offset(page, tamanho);
+
+        List<EspecialidadeModel> porPrefixo = indice().buscar(limpo);
+        List<EspecialidadeModel> pagina = !porPrefixo.isEmpty()
+                ? porPrefixo.subList(Math.min(offset, porPrefixo.size()),
+                        Math.min(offset + tamanho, porPrefixo.size()))
+                : especialidadeRepository.buscarSemelhantes(limpo, TextoBusca.escaparLike(limpo), tamanho, offset);
+
+        return pagina.stream()
+                .map(e -> new SugestaoDTO(e.getCodigo(), e.getNome(), null))
+                .toList();
+    }
+
+    public List<SugestaoDTO> buscarMedicos(String termo, Integer page, Integer size) {
+        String limpo = TextoBusca.limpar(termo);
+        if (limpo.isEmpty()) {
+            return List.of();
+        }
+        int tamanho = tamanho(size);
+
+        return medicoRepository
+                .buscarAtivosPorNome(limpo, TextoBusca.escaparLike(limpo), tamanho, offset(page, tamanho))
+                .stream()
+                .map(m -> new SugestaoDTO(m.getId().toString(), m.getNome(), m.getEspecialidade()))
+                .toList();
+    }
+
+    // A lista do EspecialidadeService só muda de instância quando o cache é
+    // invalidado por uma escrita; nesse caso a árvore é remontada
+    private IndicePrefixos<EspecialidadeModel> indice() {
+        List<EspecialidadeModel> atual = especialidadeService.findAll();
+        Indexado existente = indexado;
+        if (existente == null || existente.fonte() != atual) {
+            existente = new Indexado(atual, new IndicePrefixos<>(atual, EspecialidadeModel::getNome));
+            indexado = existente;
+        }
+        return existente.indice();
+    }
+
+    private static int tamanho(Integer size) {
+        return Math.max(1, Math.min(size != null ? size : TAMANHO_PADRAO, TAMANHO_MAXIMO));
+    }
+
+    private static int offset(Integer page, int tamanho) {
+        return Math.max(0, page != null ? page : 0) * tamanho;
+    }
+
+    private record Indexado(List<EspecialidadeModel> fonte, IndicePrefixos<EspecialidadeModel> indice) {}
+}
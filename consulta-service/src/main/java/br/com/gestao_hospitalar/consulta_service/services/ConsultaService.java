@@ -2,19 +2,41 @@ package br.com.gestao_hospitalar.consulta_service.services;
 
 import br.com.gestao_hospitalar.consulta_service.models.ConsultaModel;
 import br.com.gestao_hospitalar.consulta_service.repositories.ConsultaRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import static br.com.gestao_hospitalar.consulta_service.repositories.ConsultaSpecifications.*;
 
 @Service
-public class ConsultaService {
+public class ConsultaService implements MeterBinder {
     
     @Autowired
     private ConsultaRepository consultaRepository;
+
+    private static final int LIMITE_MAXIMO = 500;
+
+    private static final Sort ORDEM_KEYSET = Sort.by("data", "codigo");
+
+    // Tentativas de reserva recusadas porque a consulta estava sem vagas
+    private final LongAdder reservasRecusadas = new LongAdder();
     
     public List<ConsultaModel> findAll() {
         return consultaRepository.findAll();
@@ -52,6 +74,70 @@ public class ConsultaService {
         return consultaRepository.findByMedicoAndVagasDisponiveisGreaterThan(medico, 0);
     }
     
+    /**
+     * Busca consultas combinando todos os filtros informados em uma única query.
+     * Com {@code limite} informado, pagina por keyset em (data, codigo) a partir
+     * do {@code cursor} devolvido pela página anterior.
+     */
+    public PaginaConsultas buscar(
+            String especialidade,
+            String medico,
+            String status,
+            LocalDateTime inicio,
+            LocalDateTime fim,
+            Boolean disponiveis,
+            String cursor,
+            Integer limite) {
+        Specification<ConsultaModel> spec = Specification
+                .where(comEspecialidade(especialidade))
+                .and(comMedico(medico))
+                .and(comStatus(status))
+                .and(aPartirDe(inicio))
+                .and(ate(fim))
+                .and(comVagasDisponiveis(disponiveis));
+
+        if (limite == null) {
+            return new PaginaConsultas(consultaRepository.findAll(spec, ORDEM_KEYSET), null);
+        }
+
+        int tamanho = Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] partes = decodificarCursor(cursor);
+            spec = spec.and(aposCursor(LocalDateTime.parse(partes[0]), partes[1]));
+        }
+
+        // Busca um registro a mais para saber se existe próxima página
+        List<ConsultaModel> consultas = consultaRepository.findBy(
+                spec, q -> q.sortBy(ORDEM_KEYSET).limit(tamanho + 1).all());
+
+        String proximoCursor = null;
+        if (consultas.size() > tamanho) {
+            consultas = consultas.subList(0, tamanho);
+            proximoCursor = codificarCursor(consultas.get(tamanho - 1));
+        }
+        return new PaginaConsultas(consultas, proximoCursor);
+    }
+
+    private String codificarCursor(ConsultaModel consulta) {
+        String valor = consulta.getData() + "|" + consulta.getCodigo();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodificarCursor(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\|", 2);
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor incompleto");
+            }
+            LocalDateTime.parse(partes[0]);
+            return partes;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+    
     public ConsultaModel save(ConsultaModel consulta) {
         if (consulta.getCodigo() == null || consulta.getCodigo().isEmpty()) {
             consulta.setCodigo(UUID.randomUUID().toString());
@@ -83,27 +169,34 @@ public class ConsultaService {
         return null;
     }
     
+    @Transactional
+    @Timed(value = "consulta.reservar.vaga", histogram = true)
     public ConsultaModel reservarVaga(String codigo) {
-        Optional<ConsultaModel> consultaOpt = consultaRepository.findById(codigo);
-        if (consultaOpt.isPresent()) {
-            ConsultaModel consulta = consultaOpt.get();
-            if (consulta.getVagasDisponiveis() > 0) {
-                consulta.setVagasDisponiveis(consulta.getVagasDisponiveis() - 1);
-                return consultaRepository.save(consulta);
-            }
+        if (consultaRepository.decrementarVagaDisponivel(codigo) > 0) {
+            return consultaRepository.findById(codigo).orElse(null);
+        }
+        if (consultaRepository.existsById(codigo)) {
+            reservasRecusadas.increment();
         }
         return null;
     }
     
+    @Transactional
     public ConsultaModel liberarVaga(String codigo) {
-        Optional<ConsultaModel> consultaOpt = consultaRepository.findById(codigo);
-        if (consultaOpt.isPresent()) {
-            ConsultaModel consulta = consultaOpt.get();
-            if (consulta.getVagasDisponiveis() < consulta.getVagasTotal()) {
-                consulta.setVagasDisponiveis(consulta.getVagasDisponiveis() + 1);
-                return consultaRepository.save(consulta);
-            }
+        if (consultaRepository.incrementarVagaDisponivel(codigo) > 0) {
+            return consultaRepository.findById(codigo).orElse(null);
         }
         return null;
     }
+
+    public long getReservasRecusadas() {
+        return reservasRecusadas.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("consulta.reservas.recusadas", reservasRecusadas, LongAdder::sum)
+                .description("Reservas recusadas por falta de vaga")
+                .register(registry);
+    }
 }
\ No newline at end of file
@@ -2,39 +2,117 @@ package br.com.gestao_hospitalar.consulta_service.services;
 
 import br.com.gestao_hospitalar.consulta_service.models.EspecialidadeModel;
 import br.com.gestao_hospitalar.consulta_service.repositories.EspecialidadeRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Catálogo de especialidades. As leituras passam por caches em memória
+ * indexados pelos mesmos filtros do controller; cada escrita remove apenas
+ * as entradas que podem ter mudado. Nas demais instâncias a escrita só
+ * aparece após {@code catalogo.cache.ttl-seconds}.
+ */
 @Service
-public class EspecialidadeService {
-    
-    @Autowired
-    private EspecialidadeRepository especialidadeRepository;
-    
+public class EspecialidadeService implements MeterBinder {
+
+    private final EspecialidadeRepository especialidadeRepository;
+
+    // Listas indexadas pelo filtro de nome em minúsculas ("" = todas)
+    private final Cache<String, List<EspecialidadeModel>> porNome;
+
+    private final Cache<String, Optional<EspecialidadeModel>> porCodigo;
+
+    public EspecialidadeService(
+            EspecialidadeRepository especialidadeRepository,
+            @Value("${catalogo.cache.max-entries:10000}") long maxEntries,
+            @Value("${catalogo.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.especialidadeRepository = especialidadeRepository;
+        this.porNome = novoCache(maxEntries, ttlSeconds);
+        this.porCodigo = novoCache(maxEntries, ttlSeconds);
+    }
+
     public List<EspecialidadeModel> findAll() {
-        return especialidadeRepository.findAll();
+        return porNome.get("", chave -> List.copyOf(especialidadeRepository.findAll()));
     }
     
     public Optional<EspecialidadeModel> findByCodigo(String codigo) {
-        return especialidadeRepository.findById(codigo);
+        return porCodigo.get(codigo, especialidadeRepository::findById);
     }
     
     public List<EspecialidadeModel> findByNome(String nome) {
-        return especialidadeRepository.findByNomeContainingIgnoreCase(nome);
+        return porNome.get(normalizar(nome),
+                chave -> List.copyOf(especialidadeRepository.findByNomeContendo(TextoBusca.escaparLike(nome))));
     }
     
     public EspecialidadeModel save(EspecialidadeModel especialidade) {
         if (especialidade.getCodigo() == null || especialidade.getCodigo().isEmpty()) {
             especialidade.setCodigo(UUID.randomUUID().toString());
         }
-        return especialidadeRepository.save(especialidade);
+        String nomeAnterior = especialidadeRepository.findById(especialidade.getCodigo())
+                .map(EspecialidadeModel::getNome)
+                .orElse(null);
+        EspecialidadeModel salva = especialidadeRepository.save(especialidade);
+        invalidar(salva.getCodigo(), nomeAnterior, salva.getNome());
+        return salva;
     }
     
     public void deleteByCodigo(String codigo) {
+        String nome = especialidadeRepository.findById(codigo)
+                .map(EspecialidadeModel::getNome)
+                .orElse(null);
         especialidadeRepository.deleteById(codigo);
+        invalidar(codigo, nome, null);
+    }
+
+    /**
+     * Carrega todas as especialidades com uma única consulta e preenche os
+     * caches de listagem e de busca por código.
+     */
+    public void aquecer() {
+        List<EspecialidadeModel> especialidades = List.copyOf(especialidadeRepository.findAll());
+        porNome.put("", especialidades);
+        for (EspecialidadeModel especialidade : especialidades) {
+            porCodigo.put(especialidade.getCodigo(), Optional.of(especialidade));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, porNome, "catalogo.especialidades");
+        CaffeineCacheMetrics.monitor(registry, porCodigo, "catalogo.especialidade");
+    }
+
+    // Remove o código alterado e as listagens cujo filtro casa com o nome
+    // antigo ou com o novo
+    private void invalidar(String codigo, String nomeAnterior, String nomeNovo) {
+        porCodigo.invalidate(codigo);
+        porNome.asMap().keySet().removeIf(filtro ->
+                contem(nomeAnterior, filtro) || contem(nomeNovo, filtro));
+    }
+
+    private static boolean contem(String nome, String filtro) {
+        return nome != null && normalizar(nome).contains(filtro);
+    }
+
+    private static String normalizar(String nome) {
+        return nome == null ? "" : nome.toLowerCase(Locale.ROOT);
+    }
+
+    private static <K, V> Cache<K, V> novoCache(long maxEntries, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
     }
-}
\ No newline at end of file
+}
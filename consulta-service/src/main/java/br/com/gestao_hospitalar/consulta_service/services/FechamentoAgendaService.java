@@ -0,0 +1,209 @@
+package br.com.gestao_hospitalar.consulta_service.services;
+
+import br.com.gestao_hospitalar.consulta_service.models.StatusAgendamento;
+import br.com.gestao_hospitalar.consulta_service.models.StatusConsulta;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encerra consultas e agendamentos cuja data já passou. Roda de madrugada
+ * em lotes de tamanho fixo, cada um em uma transação curta que trava só as
+ * linhas do lote ({@code FOR UPDATE SKIP LOCKED}) e nunca espera por linhas
+ * em uso pela recepção.
+ *
+ * <p>A seleção é pelo status atual, então uma execução interrompida (pelo
+ * prazo máximo ou por queda do serviço) continua naturalmente na próxima, e
+ * várias instâncias podem rodar ao mesmo tempo sem processar a mesma linha.
+ * A tabela {@code fechamento_checkpoint} registra o progresso de cada etapa.
+ */
+@Service
+public class FechamentoAgendaService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(FechamentoAgendaService.class);
+
+    /**
+     * Cada etapa move um status de origem para o final correspondente, de
+     * acordo com as transições de {@link StatusConsulta} e
+     * {@link StatusAgendamento}.
+     */
+    enum Etapa {
+        CONSULTAS_DISPONIVEIS("consulta", "codigo", VersaoTabelas.Tabela.CONSULTA,
+                StatusConsulta.DISPONIVEL.name(), StatusConsulta.ENCERRADA.name()),
+        AGENDAMENTOS_COM_CHECK_IN("agendamento", "id", VersaoTabelas.Tabela.AGENDAMENTO,
+                StatusAgendamento.CHECK_IN.name(), StatusAgendamento.REALIZADO.name()),
+        AGENDAMENTOS_SEM_COMPARECIMENTO("agendamento", "id", VersaoTabelas.Tabela.AGENDAMENTO,
+                StatusAgendamento.AGENDADO.name(), StatusAgendamento.FALTOU.name());
+
+        private final VersaoTabelas.Tabela versao;
+        private final String origem;
+        private final String destino;
+        private final String sql;
+
+        Etapa(String tabela, String chave, VersaoTabelas.Tabela versao, String origem, String destino) {
+            this.versao = versao;
+            this.origem = origem;
+            this.destino = destino;
+            this.sql = "WITH lote AS (SELECT " + chave + " AS id, data FROM " + tabela +
+                    " WHERE status = ? AND data < ? ORDER BY data, " + chave + " LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                    "UPDATE " + tabela + " t SET status = ? FROM lote WHERE t." + chave + " = lote.id " +
+                    "RETURNING lote.data, lote.id";
+        }
+    }
+
+    private static final String INICIAR_CHECKPOINT =
+            "INSERT INTO fechamento_checkpoint (etapa, processados_execucao, execucao_iniciada_em, atualizado_em) " +
+            "VALUES (?, 0, ?, ?) ON CONFLICT (etapa) DO UPDATE SET processados_execucao = 0, " +
+            "execucao_iniciada_em = EXCLUDED.execucao_iniciada_em, atualizado_em = EXCLUDED.atualizado_em";
+
+    private static final String ATUALIZAR_CHECKPOINT =
+            "UPDATE fechamento_checkpoint SET ultima_data = ?, ultimo_id = ?, " +
+            "processados_execucao = processados_execucao + ?, processados_total = processados_total + ?, " +
+            "atualizado_em = ? WHERE etapa = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VersaoTabelas versaoTabelas;
+    private final Duration carencia;
+    private final int tamanhoLote;
+    private final long pausaMs;
+    private final Duration duracaoMaxima;
+
+    private final AtomicLong totalProcessados = new AtomicLong();
+    private volatile long ultimaExecucaoProcessados;
+    private volatile double ultimaExecucaoSegundos;
+
+    public FechamentoAgendaService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            VersaoTabelas versaoTabelas,
+            @Value("${fechamento.carencia-horas:24}") long carenciaHoras,
+            @Value("${fechamento.tamanho-lote:500}") int tamanhoLote,
+            @Value("${fechamento.pausa-ms:100}") long pausaMs,
+            @Value("${fechamento.duracao-maxima-minutos:60}") long duracaoMaximaMinutos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.versaoTabelas = versaoTabelas;
+        this.carencia = Duration.ofHours(carenciaHoras);
+        this.tamanhoLote = tamanhoLote;
+        this.pausaMs = pausaMs;
+        this.duracaoMaxima = Duration.ofMinutes(duracaoMaximaMinutos);
+    }
+
+    /**
+     * Processa as etapas em ordem até esgotar os registros passados ou
+     * atingir {@code fechamento.duracao-maxima-minutos}. Registros dentro da
+     * carência ficam para a recepção marcar manualmente.
+     *
+     * @return quantidade de registros encerrados nesta execução
+     */
+    @Scheduled(cron = "${fechamento.cron:0 30 2 * * *}")
+    public long executar() {
+        long inicio = System.nanoTime();
+        long prazo = inicio + duracaoMaxima.toNanos();
+        LocalDateTime limite = LocalDateTime.now().minus(carencia);
+        long processados = 0;
+        boolean interrompida = false;
+
+        for (Etapa etapa : Etapa.values()) {
+            LocalDateTime agora = LocalDateTime.now();
+            jdbcTemplate.update(INICIAR_CHECKPOINT, etapa.name(),
+                    Timestamp.valueOf(agora), Timestamp.valueOf(agora));
+
+            int lote;
+            do {
+                if (System.nanoTime() > prazo) {
+                    interrompida = true;
+                    break;
+                }
+                lote = transactionTemplate.execute(status -> processarLote(etapa, limite));
+                if (lote > 0) {
+                    versaoTabelas.incrementar(etapa.versao);
+                    processados += lote;
+                    totalProcessados.addAndGet(lote);
+                }
+                if (lote == tamanhoLote && !pausar()) {
+                    interrompida = true;
+                    break;
+                }
+            } while (lote == tamanhoLote);
+
+            if (interrompida) {
+                break;
+            }
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        ultimaExecucaoProcessados = processados;
+        ultimaExecucaoSegundos = segundos;
+        log.info("Fechamento da agenda {}: {} registros em {} s ({} registros/s)",
+                interrompida ? "interrompido" : "concluído", processados,
+                String.format("%.1f", segundos), String.format("%.1f", vazao()));
+        return processados;
+    }
+
+    private int processarLote(Etapa etapa, LocalDateTime limite) {
+        List<Processado> lote = jdbcTemplate.query(etapa.sql,
+                (rs, i) -> new Processado(rs.getTimestamp(1).toLocalDateTime(), rs.getString(2)),
+                etapa.origem, Timestamp.valueOf(limite), tamanhoLote, etapa.destino);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        Processado ultimo = lote.stream().max(Processado.ORDEM).orElseThrow();
+        jdbcTemplate.update(ATUALIZAR_CHECKPOINT, Timestamp.valueOf(ultimo.data()), ultimo.id(),
+                lote.size(), lote.size(), Timestamp.valueOf(LocalDateTime.now()), etapa.name());
+        return lote.size();
+    }
+
+    private boolean pausar() {
+        try {
+            Thread.sleep(pausaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private double vazao() {
+        return ultimaExecucaoSegundos > 0 ? ultimaExecucaoProcessados / ultimaExecucaoSegundos : 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("fechamento.agenda.registros", totalProcessados, AtomicLong::get)
+                .description("Consultas e agendamentos encerrados pelo fechamento automático")
+                .register(registry);
+        Gauge.builder("fechamento.agenda.ultima.execucao.registros", this, s -> s.ultimaExecucaoProcessados)
+                .register(registry);
+        Gauge.builder("fechamento.agenda.ultima.execucao.duracao", this, s -> s.ultimaExecucaoSegundos)
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("fechamento.agenda.ultima.execucao.vazao", this, FechamentoAgendaService::vazao)
+                .baseUnit("registros/s")
+                .description("Registros encerrados por segundo na última execução")
+                .register(registry);
+    }
+
+    private record Processado(LocalDateTime data, String id) {
+        static final Comparator<Processado> ORDEM =
+                Comparator.comparing(Processado::data).thenComparing(Processado::id);
+    }
+}
@@ -0,0 +1,207 @@
+package br.com.gestao_hospitalar.consulta_service.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicação de requisições pelo header {@code Idempotency-Key}.
+ *
+ * <p>Repetições de uma chave já concluída recebem a resposta original, lida
+ * de um cache em memória limitado ou da tabela {@code idempotencia}.
+ * Repetições concorrentes na mesma instância aguardam a execução em
+ * andamento em vez de repeti-la; entre instâncias, a inserção da chave na
+ * mesma transação da operação faz a segunda esperar o commit da primeira.
+ */
+@Service
+public class IdempotenciaService implements MeterBinder {
+
+    public static final String HEADER_REPETIDA = "Idempotent-Replayed";
+
+    private static final String RESERVAR =
+            "INSERT INTO idempotencia (chave, hash_requisicao, criado_em, expira_em) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (chave) DO UPDATE SET hash_requisicao = EXCLUDED.hash_requisicao, " +
+            "status_http = NULL, corpo = NULL, criado_em = EXCLUDED.criado_em, expira_em = EXCLUDED.expira_em " +
+            "WHERE idempotencia.expira_em < EXCLUDED.criado_em";
+
+    private static final String BUSCAR =
+            "SELECT hash_requisicao, status_http, corpo FROM idempotencia WHERE chave = ?";
+
+    private static final String REGISTRAR =
+            "UPDATE idempotencia SET status_http = ?, corpo = ? WHERE chave = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final long esperaMs;
+
+    private final Cache<String, Resposta> respostas;
+    private final ConcurrentHashMap<String, CompletableFuture<Resposta>> emAndamento = new ConcurrentHashMap<>();
+
+    public IdempotenciaService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${idempotencia.ttl-horas:24}") long ttlHoras,
+            @Value("${idempotencia.cache.max-entries:10000}") long maxEntries,
+            @Value("${idempotencia.espera-ms:10000}") long esperaMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHoras);
+        this.esperaMs = esperaMs;
+        this.respostas = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Executa {@code operacao} uma única vez por {@code chave} e devolve o
+     * resultado serializado com {@code statusSucesso}. Exceções da operação
+     * não são gravadas: a mesma chave pode ser usada em uma nova tentativa.
+     *
+     * @param requisicao corpo recebido, usado para recusar a reutilização da
+     *                   chave com outro conteúdo
+     */
+    public ResponseEntity<String> executar(String chave, Object requisicao, HttpStatus statusSucesso,
+                                           Supplier<?> operacao) {
+        byte[] hash = hash(requisicao);
+
+        Resposta salva = respostas.getIfPresent(chave);
+        if (salva != null) {
+            return repetir(salva, hash);
+        }
+
+        CompletableFuture<Resposta> minha = new CompletableFuture<>();
+        CompletableFuture<Resposta> emCurso = emAndamento.putIfAbsent(chave, minha);
+        if (emCurso != null) {
+            return repetir(aguardar(emCurso), hash);
+        }
+
+        try {
+            Execucao execucao = transactionTemplate.execute(status ->
+                    executarUmaVez(chave, hash, statusSucesso, operacao));
+            respostas.put(chave, execucao.resposta());
+            minha.complete(execucao.resposta());
+            return execucao.repetida()
+                    ? repetir(execucao.resposta(), hash)
+                    : paraResponse(execucao.resposta(), false);
+        } catch (RuntimeException e) {
+            minha.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, minha);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotencia.limpeza-ms:3600000}")
+    public int removerExpiradas() {
+        return jdbcTemplate.update("DELETE FROM idempotencia WHERE expira_em < ?",
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, respostas, "idempotencia");
+    }
+
+    private Execucao executarUmaVez(String chave, byte[] hash, HttpStatus statusSucesso, Supplier<?> operacao) {
+        LocalDateTime agora = LocalDateTime.now();
+        int reservadas = jdbcTemplate.update(RESERVAR, chave, hash,
+                Timestamp.valueOf(agora), Timestamp.valueOf(agora.plus(ttl)));
+
+        if (reservadas == 0) {
+            List<Resposta> existentes = jdbcTemplate.query(BUSCAR,
+                    (rs, i) -> new Resposta(rs.getBytes(1), rs.getInt(2), rs.getString(3)), chave);
+            if (existentes.isEmpty() || existentes.get(0).corpo() == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Requisição ainda em processamento");
+            }
+            return new Execucao(existentes.get(0), true);
+        }
+
+        String corpo = serializar(operacao.get());
+        jdbcTemplate.update(REGISTRAR, statusSucesso.value(), corpo, chave);
+        return new Execucao(new Resposta(hash, statusSucesso.value(), corpo), false);
+    }
+
+    private Resposta aguardar(CompletableFuture<Resposta> emCurso) {
+        try {
+            return emCurso.get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Requisição ainda em processamento");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Requisição interrompida");
+        }
+    }
+
+    private ResponseEntity<String> repetir(Resposta resposta, byte[] hash) {
+        if (!MessageDigest.isEqual(resposta.hashRequisicao(), hash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key já usada com outra requisição");
+        }
+        return paraResponse(resposta, true);
+    }
+
+    private static ResponseEntity<String> paraResponse(Resposta resposta, boolean repetida) {
+        return ResponseEntity.status(resposta.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HEADER_REPETIDA, String.valueOf(repetida))
+                .body(resposta.corpo());
+    }
+
+    private byte[] hash(Object requisicao) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(requisicao));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String serializar(Object resultado) {
+        try {
+            return objectMapper.writeValueAsString(resultado);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Resposta(byte[] hashRequisicao, int status, String corpo) {}
+
+    private record Execucao(Resposta resposta, boolean repetida) {}
+}
@@ -0,0 +1,84 @@
+package br.com.gestao_hospitalar.consulta_service.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Árvore de prefixos sobre as palavras dos nomes de um conjunto pequeno
+ * (o catálogo de especialidades). Cada nó guarda os itens que têm alguma
+ * palavra começando pelo prefixo do nó, então a busca custa o tamanho do
+ * termo mais o tamanho do resultado. Imutável depois de montada: as buscas
+ * não precisam de sincronização e a reconstrução troca a instância inteira.
+ */
+final class IndicePrefixos<T> {
+
+    private final No<T> raiz = new No<>();
+    private final Map<T, String> nomes = new HashMap<>();
+
+    IndicePrefixos(Collection<T> itens, Function<T, String> nome) {
+        for (T item : itens) {
+            String normalizado = TextoBusca.normalizar(nome.apply(item));
+            nomes.put(item, normalizado);
+            for (String palavra : TextoBusca.palavras(normalizado)) {
+                No<T> no = raiz;
+                for (int i = 0; i < palavra.length(); i++) {
+                    no = no.filhos.computeIfAbsent(palavra.charAt(i), c -> new No<>());
+                    no.itens.add(item);
+                }
+            }
+        }
+    }
+
+    /**
+     * Itens em que cada palavra do termo é prefixo de alguma palavra do nome.
+     * Nomes que começam pelo termo inteiro vêm primeiro, depois ordem
+     * alfabética.
+     */
+    List<T> buscar(String termo) {
+        String normalizado = TextoBusca.normalizar(termo);
+        Set<T> encontrados = null;
+        for (String palavra : TextoBusca.palavras(normalizado)) {
+            if (palavra.isEmpty()) {
+                continue;
+            }
+            Set<T> comPrefixo = itensComPrefixo(palavra);
+            if (encontrados == null) {
+                encontrados = new LinkedHashSet<>(comPrefixo);
+            } else {
+                encontrados.retainAll(comPrefixo);
+            }
+            if (encontrados.isEmpty()) {
+                break;
+            }
+        }
+        if (encontrados == null) {
+            return List.of();
+        }
+
+        List<T> resultado = new ArrayList<>(encontrados);
+        resultado.sort(Comparator
+                .comparing((T item) -> !nomes.get(item).startsWith(normalizado))
+                .thenComparing(nomes::get));
+        return resultado;
+    }
+
+    private Set<T> itensComPrefixo(String prefixo) {
+        No<T> no = raiz;
+        for (int i = 0; i < prefixo.length() && no != null; i++) {
+            no = no.filhos.get(prefixo.charAt(i));
+        }
+        return no == null ? Set.of() : no.itens;
+    }
+
+    private static final class No<T> {
+        private final Map<Character, No<T>> filhos = new HashMap<>();
+        private final Set<T> itens = new LinkedHashSet<>();
+    }
+}
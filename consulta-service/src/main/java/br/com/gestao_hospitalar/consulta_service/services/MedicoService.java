@@ -2,43 +2,85 @@ package br.com.gestao_hospitalar.consulta_service.services;
 
 import br.com.gestao_hospitalar.consulta_service.models.MedicoModel;
 import br.com.gestao_hospitalar.consulta_service.repositories.MedicoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Catálogo de médicos. As listagens ficam em cache pelos mesmos filtros
+ * aceitos em {@code GET /medicos} (especialidade e ativo) e as buscas por id
+ * e CRM têm caches próprios. Cada escrita remove apenas as entradas que
+ * podem conter o médico alterado, antes e depois da alteração.
+ *
+ * <p>A invalidação é só local: escritas feitas em outra instância aparecem
+ * aqui após {@code catalogo.cache.ttl-seconds}.
+ */
 @Service
-public class MedicoService {
+public class MedicoService implements MeterBinder {
 
-  @Autowired
-  private MedicoRepository medicoRepository;
+  private final MedicoRepository medicoRepository;
+  private final Cache<FiltroMedicos, List<MedicoModel>> porFiltro;
+  private final Cache<UUID, Optional<MedicoModel>> porId;
+  private final Cache<String, Optional<MedicoModel>> porCrm;
+
+  public MedicoService(
+    MedicoRepository medicoRepository,
+    @Value("${catalogo.cache.max-entries:10000}") long maxEntries,
+    @Value("${catalogo.cache.ttl-seconds:30}") long ttlSeconds
+  ) {
+    this.medicoRepository = medicoRepository;
+    this.porFiltro = novoCache(maxEntries, ttlSeconds);
+    this.porId = novoCache(maxEntries, ttlSeconds);
+    this.porCrm = novoCache(maxEntries, ttlSeconds);
+  }
 
   public List<MedicoModel> findAll() {
-    return medicoRepository.findAll();
+    return porFiltro.get(new FiltroMedicos(null, null), filtro ->
+      List.copyOf(medicoRepository.findAll())
+    );
   }
 
   public Optional<MedicoModel> findById(UUID id) {
-    return medicoRepository.findById(id);
+    return porId.get(id, medicoRepository::findById);
   }
 
   public List<MedicoModel> findByEspecialidade(String especialidade) {
-    return medicoRepository.findByEspecialidade(especialidade);
+    return porFiltro.get(new FiltroMedicos(especialidade, null), filtro ->
+      List.copyOf(medicoRepository.findByEspecialidade(especialidade))
+    );
   }
 
   public Optional<MedicoModel> findByCrm(String crm) {
-    return medicoRepository.findByCrm(crm);
+    return porCrm.get(crm, medicoRepository::findByCrm);
   }
 
   public List<MedicoModel> findByAtivo(Boolean ativo) {
-    return medicoRepository.findByAtivo(ativo);
+    return porFiltro.get(new FiltroMedicos(null, ativo), filtro ->
+      List.copyOf(medicoRepository.findByAtivo(ativo))
+    );
   }
 
   public List<MedicoModel> findByEspecialidadeAndAtivo(
     String especialidade,
     Boolean ativo
   ) {
-    return medicoRepository.findByEspecialidadeAndAtivo(especialidade, ativo);
+    return porFiltro.get(new FiltroMedicos(especialidade, ativo), filtro ->
+      List.copyOf(
+        medicoRepository.findByEspecialidadeAndAtivo(especialidade, ativo)
+      )
+    );
   }
 
   public MedicoModel save(MedicoModel medico) {
@@ -49,15 +91,101 @@ public class MedicoService {
     if (medico.getAtivo() == null) {
       medico.setAtivo(true);
     }
-    return medicoRepository.save(medico);
+    MedicoModel anterior = medicoRepository
+      .findById(medico.getId())
+      .orElse(null);
+    MedicoModel salvo = medicoRepository.save(medico);
+    invalidar(anterior);
+    invalidar(salvo);
+    return salvo;
   }
 
   public void deleteById(UUID id) {
     Optional<MedicoModel> medicoOpt = medicoRepository.findById(id);
     if (medicoOpt.isPresent()) {
       MedicoModel medico = medicoOpt.get();
+      String crm = medico.getCrm();
+      String especialidade = medico.getEspecialidade();
+      Boolean ativo = medico.getAtivo();
       medico.setAtivo(false);
       medicoRepository.save(medico);
+      invalidar(id, crm, especialidade, ativo);
+      invalidar(medico);
+    }
+  }
+
+  /**
+   * Carrega todos os médicos com uma única consulta e monta em memória as
+   * listagens por especialidade e situação, além das buscas por id e CRM.
+   */
+  public void aquecer() {
+    List<MedicoModel> medicos = List.copyOf(medicoRepository.findAll());
+    Map<FiltroMedicos, List<MedicoModel>> listas = new HashMap<>();
+    for (MedicoModel medico : medicos) {
+      porId.put(medico.getId(), Optional.of(medico));
+      porCrm.put(medico.getCrm(), Optional.of(medico));
+      for (FiltroMedicos filtro : List.of(
+        new FiltroMedicos(medico.getEspecialidade(), null),
+        new FiltroMedicos(medico.getEspecialidade(), medico.getAtivo()),
+        new FiltroMedicos(null, medico.getAtivo())
+      )) {
+        listas.computeIfAbsent(filtro, f -> new ArrayList<>()).add(medico);
+      }
+    }
+    porFiltro.put(new FiltroMedicos(null, null), medicos);
+    listas.forEach((filtro, lista) -> porFiltro.put(filtro, List.copyOf(lista)));
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, porFiltro, "catalogo.medicos");
+    CaffeineCacheMetrics.monitor(registry, porId, "catalogo.medico");
+    CaffeineCacheMetrics.monitor(registry, porCrm, "catalogo.medico.crm");
+  }
+
+  private void invalidar(MedicoModel medico) {
+    if (medico != null) {
+      invalidar(
+        medico.getId(),
+        medico.getCrm(),
+        medico.getEspecialidade(),
+        medico.getAtivo()
+      );
+    }
+  }
+
+  private void invalidar(
+    UUID id,
+    String crm,
+    String especialidade,
+    Boolean ativo
+  ) {
+    porId.invalidate(id);
+    if (crm != null) {
+      porCrm.invalidate(crm);
+    }
+    porFiltro
+      .asMap()
+      .keySet()
+      .removeIf(filtro -> filtro.inclui(especialidade, ativo));
+  }
+
+  private static <K, V> Cache<K, V> novoCache(long maxEntries, long ttlSeconds) {
+    return Caffeine.newBuilder()
+      .maximumSize(maxEntries)
+      .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+      .recordStats()
+      .build();
+  }
+
+  // Filtros de GET /medicos; null significa "qualquer valor"
+  private record FiltroMedicos(String especialidade, Boolean ativo) {
+    boolean inclui(String especialidadeMedico, Boolean ativoMedico) {
+      return (
+        (especialidade == null ||
+          Objects.equals(especialidade, especialidadeMedico)) &&
+        (ativo == null || Objects.equals(ativo, ativoMedico))
+      );
     }
   }
 }
@@ -0,0 +1,27 @@
+package br.com.gestao_hospitalar.consulta_service.services;
+
+import br.com.gestao_hospitalar.consulta_service.models.ConsultaModel;
+import java.util.List;
+
+/**
+ * Resultado de uma busca paginada por keyset. {@code proximoCursor} é nulo
+ * quando não há mais consultas após a última retornada.
+ */
+public class PaginaConsultas {
+
+  private final List<ConsultaModel> consultas;
+  private final String proximoCursor;
+
+  public PaginaConsultas(List<ConsultaModel> consultas, String proximoCursor) {
+    this.consultas = consultas;
+    this.proximoCursor = proximoCursor;
+  }
+
+  public List<ConsultaModel> getConsultas() {
+    return consultas;
+  }
+
+  public String getProximoCursor() {
+    return proximoCursor;
+  }
+}
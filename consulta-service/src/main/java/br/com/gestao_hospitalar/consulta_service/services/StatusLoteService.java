@@ -0,0 +1,115 @@
+package br.com.gestao_hospitalar.consulta_service.services;
+
+import br.com.gestao_hospitalar.consulta_service.dto.AtualizacaoStatusLoteDTO;
+import br.com.gestao_hospitalar.consulta_service.dto.ResultadoStatusDTO;
+import br.com.gestao_hospitalar.consulta_service.dto.ResultadoStatusDTO.Resultado;
+import br.com.gestao_hospitalar.consulta_service.models.StatusAgendamento;
+import br.com.gestao_hospitalar.consulta_service.models.StatusConsulta;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Mudança de status em lote para agendamentos e consultas. Os registros são
+ * lidos e travados com um único SELECT ... FOR UPDATE, as transições são
+ * validadas pela máquina de estados do enum e os aprovados mudam com um único
+ * UPDATE. A resposta traz o resultado de cada id, na ordem do pedido.
+ */
+@Service
+public class StatusLoteService {
+
+    static final int LIMITE_IDS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StatusLoteService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public List<ResultadoStatusDTO> atualizarAgendamentos(AtualizacaoStatusLoteDTO pedido) {
+        StatusAgendamento destino = StatusAgendamento.de(pedido.status())
+                .orElseThrow(() -> statusInvalido(pedido.status()));
+        return atualizar("agendamento", "id", pedido.ids(), destino.name(),
+                atual -> StatusAgendamento.de(atual).map(s -> s.podeMudarPara(destino)).orElse(false));
+    }
+
+    @Transactional
+    public List<ResultadoStatusDTO> atualizarConsultas(AtualizacaoStatusLoteDTO pedido) {
+        StatusConsulta destino = StatusConsulta.de(pedido.status())
+                .orElseThrow(() -> statusInvalido(pedido.status()));
+        return atualizar("consulta", "codigo", pedido.ids(), destino.name(),
+                atual -> StatusConsulta.de(atual).map(s -> s.podeMudarPara(destino)).orElse(false));
+    }
+
+    /**
+     * {@code tabela} e {@code chave} são constantes desta classe, nunca vêm da
+     * requisição.
+     */
+    private List<ResultadoStatusDTO> atualizar(String tabela, String chave, List<String> idsPedido,
+                                               String destino, Predicate<String> transicaoPermitida) {
+        if (idsPedido == null || idsPedido.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe ao menos um id");
+        }
+        LinkedHashSet<String> ids = new LinkedHashSet<>(idsPedido);
+        ids.remove(null);
+        if (ids.size() > LIMITE_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "O lote aceita no máximo " + LIMITE_IDS + " ids");
+        }
+        String[] todos = ids.toArray(String[]::new);
+
+        Map<String, String> atuais = new HashMap<>(todos.length * 2);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT " + chave + ", status FROM " + tabela + " WHERE " + chave + " = ANY(?) FOR UPDATE");
+            ps.setArray(1, con.createArrayOf("varchar", todos));
+            return ps;
+        }, (RowCallbackHandler) rs -> atuais.put(rs.getString(1), rs.getString(2)));
+
+        List<ResultadoStatusDTO> resultados = new ArrayList<>(todos.length);
+        List<String> aprovados = new ArrayList<>(todos.length);
+        for (String id : todos) {
+            String atual = atuais.get(id);
+            Resultado resultado;
+            if (atual == null) {
+                resultado = Resultado.NAO_ENCONTRADO;
+            } else if (destino.equals(atual)) {
+                resultado = Resultado.INALTERADO;
+            } else if (transicaoPermitida.test(atual)) {
+                resultado = Resultado.ATUALIZADO;
+                aprovados.add(id);
+            } else {
+                resultado = Resultado.TRANSICAO_NAO_PERMITIDA;
+            }
+            resultados.add(new ResultadoStatusDTO(id, resultado, atual));
+        }
+
+        if (!aprovados.isEmpty()) {
+            String[] paraAtualizar = aprovados.toArray(String[]::new);
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "UPDATE " + tabela + " SET status = ? WHERE " + chave + " = ANY(?)");
+                ps.setString(1, destino);
+                ps.setArray(2, con.createArrayOf("varchar", paraAtualizar));
+                return ps;
+            });
+        }
+        return resultados;
+    }
+
+    private static ResponseStatusException statusInvalido(String status) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Status inválido: " + status);
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.gestao_hospitalar.consulta_service.services;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização de termos de busca compartilhada pelas buscas por nome.
+ */
+final class TextoBusca {
+
+    static final int TAMANHO_MAXIMO = 100;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextoBusca() {}
+
+    /**
+     * Termo digitado pelo usuário sem espaços nas pontas e limitado a
+     * {@link #TAMANHO_MAXIMO} caracteres; vazio quando nulo.
+     */
+    static String limpar(String termo) {
+        if (termo == null) {
+            return "";
+        }
+        String limpo = termo.strip();
+        return limpo.length() > TAMANHO_MAXIMO ? limpo.substring(0, TAMANHO_MAXIMO) : limpo;
+    }
+
+    /**
+     * Minúsculas e sem acentos, para comparar "Pediatria" com "pediatria" e
+     * "Ortopédica" com "ortopedica".
+     */
+    static String normalizar(String texto) {
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return ACENTOS.matcher(decomposto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static String[] palavras(String normalizado) {
+        return SEPARADORES.matcher(normalizado).replaceAll(" ").strip().split(" ");
+    }
+
+    /**
+     * Escapa os curingas do LIKE para uso com {@code ESCAPE '\'}.
+     */
+    static String escaparLike(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.gestao_hospitalar.consulta_service.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Versão de alteração de cada tabela, usada nas ETags das listagens. Cada
+ * versão é uma sequência do Postgres, então todas as instâncias do serviço
+ * enxergam o mesmo valor. As leituras usam um retrato local de curta
+ * duração, descartado a cada escrita feita nesta instância.
+ */
+@Service
+public class VersaoTabelas {
+
+    public enum Tabela {
+        CONSULTA("versao_consulta"),
+        MEDICO("versao_medico"),
+        ESPECIALIDADE("versao_especialidade"),
+        AGENDAMENTO("versao_agendamento");
+
+        private final String sequencia;
+
+        Tabela(String sequencia) {
+            this.sequencia = sequencia;
+        }
+    }
+
+    private static final String LER_VERSOES =
+            "SELECT (SELECT last_value FROM versao_consulta), (SELECT last_value FROM versao_medico), " +
+            "(SELECT last_value FROM versao_especialidade), (SELECT last_value FROM versao_agendamento)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long validadeNanos;
+
+    private volatile Retrato retrato;
+
+    public VersaoTabelas(JdbcTemplate jdbcTemplate,
+                         @Value("${etag.versao.validade-ms:1000}") long validadeMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validadeNanos = validadeMs * 1_000_000L;
+    }
+
+    public long versao(Tabela tabela) {
+        Retrato atual = retrato;
+        long agora = System.nanoTime();
+        if (atual == null || agora - atual.lidoEm() > validadeNanos) {
+            long[] versoes = jdbcTemplate.queryForObject(LER_VERSOES, (rs, i) -> new long[] {
+                    rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)
+            });
+            atual = new Retrato(versoes, agora);
+            retrato = atual;
+        }
+        return atual.versoes()[tabela.ordinal()];
+    }
+
+    /**
+     * Marca a tabela como alterada. Deve ser chamado depois do commit da
+     * escrita, para que nenhuma leitura associe a nova versão a dados antigos.
+     */
+    public void incrementar(Tabela tabela) {
+        jdbcTemplate.queryForObject("SELECT nextval('" + tabela.sequencia + "')", Long.class);
+        retrato = null;
+    }
+
+    private record Retrato(long[] versoes, long lidoEm) {}
+}
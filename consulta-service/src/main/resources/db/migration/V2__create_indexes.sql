@@ -0,0 +1,49 @@
+-- Índices alinhados aos métodos de busca dos repositories
+
+-- Tabela: consulta
+-- findByDataBetween e paginação por keyset em (data, codigo)
+CREATE INDEX IF NOT EXISTS idx_consulta_data_codigo
+    ON consulta (data, codigo);
+
+-- findByEspecialidade / findByMedico / findByStatus (ordenados por data)
+CREATE INDEX IF NOT EXISTS idx_consulta_especialidade_data
+    ON consulta (especialidade, data);
+
+CREATE INDEX IF NOT EXISTS idx_consulta_medico_data
+    ON consulta (medico, data);
+
+CREATE INDEX IF NOT EXISTS idx_consulta_status_data
+    ON consulta (status, data);
+
+-- Consultas com vagas disponíveis: índices parciais, pequenos e sempre quentes
+CREATE INDEX IF NOT EXISTS idx_consulta_disponiveis_data
+    ON consulta (data, codigo)
+    WHERE vagas_disponiveis > 0;
+
+CREATE INDEX IF NOT EXISTS idx_consulta_especialidade_disponiveis
+    ON consulta (especialidade, vagas_disponiveis)
+    WHERE vagas_disponiveis > 0;
+
+CREATE INDEX IF NOT EXISTS idx_consulta_medico_disponiveis
+    ON consulta (medico, vagas_disponiveis)
+    WHERE vagas_disponiveis > 0;
+
+-- Tabela: agendamento
+CREATE INDEX IF NOT EXISTS idx_agendamento_paciente_data
+    ON agendamento (codigo_paciente, data);
+
+CREATE INDEX IF NOT EXISTS idx_agendamento_medico_data
+    ON agendamento (medico, data);
+
+CREATE INDEX IF NOT EXISTS idx_agendamento_status_data
+    ON agendamento (status, data);
+
+CREATE INDEX IF NOT EXISTS idx_agendamento_data
+    ON agendamento (data);
+
+-- Tabela: medico
+CREATE INDEX IF NOT EXISTS idx_medico_especialidade_ativo
+    ON medico (especialidade, ativo);
+
+CREATE INDEX IF NOT EXISTS idx_medico_ativo
+    ON medico (ativo);
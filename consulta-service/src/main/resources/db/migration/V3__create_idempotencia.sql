@@ -0,0 +1,13 @@
+-- Respostas de requisições com Idempotency-Key. A linha é inserida na mesma
+-- transação da operação: uma repetição concorrente espera o commit e então
+-- reaproveita a resposta gravada.
+CREATE TABLE idempotencia (
+    chave VARCHAR(400) PRIMARY KEY,
+    hash_requisicao BYTEA NOT NULL,
+    status_http INTEGER,
+    corpo TEXT,
+    criado_em TIMESTAMP NOT NULL,
+    expira_em TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotencia_expira_em ON idempotencia (expira_em);
@@ -0,0 +1,10 @@
+-- Versão de cada tabela do catálogo/agenda, usada para gerar ETags. As
+-- sequências são incrementadas pelo serviço após cada escrita e lidas com
+-- last_value, sem bloqueio entre transações.
+CREATE SEQUENCE versao_consulta;
+CREATE SEQUENCE versao_medico;
+CREATE SEQUENCE versao_especialidade;
+CREATE SEQUENCE versao_agendamento;
+
+SELECT nextval('versao_consulta'), nextval('versao_medico'),
+       nextval('versao_especialidade'), nextval('versao_agendamento');
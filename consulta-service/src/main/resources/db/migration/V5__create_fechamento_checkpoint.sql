@@ -0,0 +1,12 @@
+-- Progresso do job que encerra consultas e agendamentos passados: uma linha
+-- por etapa, atualizada na mesma transação de cada lote. Os lotes usam os
+-- índices (status, data) de V2.
+CREATE TABLE IF NOT EXISTS fechamento_checkpoint (
+    etapa VARCHAR(100) PRIMARY KEY,
+    ultima_data TIMESTAMP,
+    ultimo_id VARCHAR(255),
+    processados_execucao BIGINT NOT NULL DEFAULT 0,
+    processados_total BIGINT NOT NULL DEFAULT 0,
+    execucao_iniciada_em TIMESTAMP,
+    atualizado_em TIMESTAMP NOT NULL
+);
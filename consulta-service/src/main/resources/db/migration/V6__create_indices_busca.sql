@@ -0,0 +1,9 @@
+-- Busca por nome (autocompletar). Os índices trigram atendem ILIKE '%x%',
+-- o operador <% e word_similarity, que um B-tree não consegue usar.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_especialidade_nome_trgm
+    ON especialidade USING gin (nome gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_medico_nome_trgm
+    ON medico USING gin (nome gin_trgm_ops);
@@ -0,0 +1,13 @@
+-- idx_medico_ativo indexava só o booleano. Quase todos os médicos estão
+-- ativos, então o planner não o escolhia: findByEspecialidadeAndAtivo usa
+-- idx_medico_especialidade_ativo e findByAtivo devolve praticamente a
+-- tabela inteira.
+DROP INDEX IF EXISTS idx_medico_ativo;
+
+-- O autocompletar (buscarAtivosPorNome) só busca médicos ativos: o índice
+-- trigram passa a ser parcial e deixa de fora os inativos
+CREATE INDEX IF NOT EXISTS idx_medico_ativo_nome_trgm
+    ON medico USING gin (nome gin_trgm_ops)
+    WHERE ativo;
+
+DROP INDEX IF EXISTS idx_medico_nome_trgm;
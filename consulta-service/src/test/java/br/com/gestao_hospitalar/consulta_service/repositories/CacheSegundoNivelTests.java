@@ -0,0 +1,149 @@
+package br.com.gestao_hospitalar.consulta_service.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.gestao_hospitalar.consulta_service.models.EspecialidadeModel;
+import br.com.gestao_hospitalar.consulta_service.models.MedicoModel;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Garante que as buscas repetidas de médicos e especialidades são atendidas
+ * pelo cache de segundo nível e pelo cache de consultas, sem ir ao banco.
+ *
+ * Roda sem transação de teste: cada chamada ao repository abre a própria
+ * sessão, então o cache de primeiro nível não mascara o resultado. Usa H2 com
+ * o schema gerado pelo Hibernate porque as migrations são específicas do
+ * PostgreSQL e aqui só interessa a contagem de statements.
+ */
+@DataJpaTest(
+  properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+  }
+)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheSegundoNivelTests {
+
+  @Autowired
+  private MedicoRepository medicoRepository;
+
+  @Autowired
+  private EspecialidadeRepository especialidadeRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics estatisticas;
+
+  @BeforeEach
+  void limparCaches() {
+    medicoRepository.deleteAll();
+    especialidadeRepository.deleteAll();
+    entityManagerFactory.getCache().evictAll();
+
+    SessionFactory sessionFactory = entityManagerFactory.unwrap(
+      SessionFactory.class
+    );
+    sessionFactory.getCache().evictQueryRegions();
+    estatisticas = sessionFactory.getStatistics();
+  }
+
+  @Test
+  void findByIdRepetidoNaoVaiAoBanco() {
+    MedicoModel medico = medicoRepository.save(novoMedico("CRM-1"));
+    entityManagerFactory.getCache().evictAll();
+
+    medicoRepository.findById(medico.getId());
+    estatisticas.clear();
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(medicoRepository.findById(medico.getId())).isPresent();
+    }
+
+    assertThat(estatisticas.getPrepareStatementCount()).isZero();
+    assertThat(estatisticas.getSecondLevelCacheHitCount()).isEqualTo(5);
+  }
+
+  @Test
+  void findByCrmRepetidoNaoVaiAoBanco() {
+    medicoRepository.save(novoMedico("CRM-2"));
+
+    medicoRepository.findByCrm("CRM-2");
+    estatisticas.clear();
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(medicoRepository.findByCrm("CRM-2")).isPresent();
+    }
+
+    assertThat(estatisticas.getPrepareStatementCount()).isZero();
+    assertThat(estatisticas.getQueryCacheHitCount()).isEqualTo(5);
+  }
+
+  @Test
+  void findByEspecialidadeAndAtivoRepetidoNaoVaiAoBanco() {
+    medicoRepository.save(novoMedico("CRM-3"));
+    medicoRepository.save(novoMedico("CRM-4"));
+
+    medicoRepository.findByEspecialidadeAndAtivo("CARD", true);
+    estatisticas.clear();
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(
+        medicoRepository.findByEspecialidadeAndAtivo("CARD", true)
+      ).hasSize(2);
+    }
+
+    assertThat(estatisticas.getPrepareStatementCount()).isZero();
+  }
+
+  @Test
+  void escritaNaTabelaInvalidaConsultasEmCache() {
+    medicoRepository.save(novoMedico("CRM-5"));
+    medicoRepository.findByAtivo(true);
+
+    medicoRepository.save(novoMedico("CRM-6"));
+    estatisticas.clear();
+
+    assertThat(medicoRepository.findByAtivo(true)).hasSize(2);
+    assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void especialidadePorCodigoRepetidaNaoVaiAoBanco() {
+    especialidadeRepository.save(new EspecialidadeModel("CARD", "Cardiologia"));
+    entityManagerFactory.getCache().evictAll();
+
+    especialidadeRepository.findById("CARD");
+    estatisticas.clear();
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(especialidadeRepository.findById("CARD")).isPresent();
+    }
+
+    assertThat(estatisticas.getPrepareStatementCount()).isZero();
+  }
+
+  private MedicoModel novoMedico(String crm) {
+    MedicoModel medico = new MedicoModel(
+      UUID.randomUUID(),
+      "Médico " + crm,
+      "CARD",
+      "41999990000",
+      crm,
+      crm + "-cpf",
+      crm.toLowerCase() + "@hospital.com"
+    );
+    medico.setAtivo(true);
+    return medico;
+  }
+}
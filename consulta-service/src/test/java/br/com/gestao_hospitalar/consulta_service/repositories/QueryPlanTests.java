@@ -0,0 +1,350 @@
+package br.com.gestao_hospitalar.consulta_service.repositories;
+
+import static br.com.gestao_hospitalar.consulta_service.repositories.ConsultaSpecifications.aPartirDe;
+import static br.com.gestao_hospitalar.consulta_service.repositories.ConsultaSpecifications.aposCursor;
+import static br.com.gestao_hospitalar.consulta_service.repositories.ConsultaSpecifications.ate;
+import static br.com.gestao_hospitalar.consulta_service.repositories.ConsultaSpecifications.comEspecialidade;
+import static br.com.gestao_hospitalar.consulta_service.repositories.ConsultaSpecifications.comVagasDisponiveis;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Garante que cada busca dos repositories é atendida por um índice. Com
+ * enable_seqscan desligado o planner só escolhe Seq Scan quando nenhum
+ * índice serve para a query, então um Seq Scan no plano indica regressão.
+ *
+ * <p>O plano é o do SQL que o Hibernate realmente gera: cada caso chama o
+ * método do repository, o {@link SqlCapturado} guarda o comando e ele é
+ * preparado com os mesmos valores passados na chamada, na ordem dos
+ * {@code ?}. Assim o plano é o personalizado, como nas primeiras execuções
+ * de um prepared statement no driver.
+ */
+@DataJpaTest(
+  properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.gestao_hospitalar.consulta_service.repositories.QueryPlanTests$SqlCapturado"
+)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTests {
+
+  private static final Sort ORDEM_KEYSET = Sort.by("data", "codigo");
+  private static final LocalDateTime INICIO = LocalDateTime.of(
+    2030,
+    1,
+    1,
+    8,
+    0
+  );
+  private static final LocalDateTime FIM = INICIO.plusDays(7);
+
+  @Container
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+    "postgres:17"
+  );
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+  }
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ConsultaRepository consultaRepository;
+
+  @Autowired
+  private AgendamentoRepository agendamentoRepository;
+
+  @Autowired
+  private EspecialidadeRepository especialidadeRepository;
+
+  @Autowired
+  private MedicoRepository medicoRepository;
+
+  @BeforeEach
+  void desligarSeqScan() {
+    jdbcTemplate.execute("SET enable_seqscan = off");
+    SqlCapturado.COMANDOS.clear();
+  }
+
+  // Os parâmetros seguem a ordem dos ? no SQL gerado; parâmetros nomeados
+  // repetidos numa query nativa aparecem uma vez por ocorrência
+  static Stream<Arguments> buscasDosRepositories() {
+    return Stream.of(
+      // ConsultaRepository
+      caso(
+        "ConsultaRepository.findByEspecialidade",
+        t -> t.consultaRepository.findByEspecialidade("x"),
+        "x"
+      ),
+      caso(
+        "ConsultaRepository.findByMedico",
+        t -> t.consultaRepository.findByMedico("x"),
+        "x"
+      ),
+      caso(
+        "ConsultaRepository.findByStatus",
+        t -> t.consultaRepository.findByStatus("x"),
+        "x"
+      ),
+      caso(
+        "ConsultaRepository.findByDataBetween",
+        t -> t.consultaRepository.findByDataBetween(INICIO, FIM),
+        INICIO,
+        FIM
+      ),
+      caso(
+        "ConsultaRepository.findByEspecialidadeAndVagasDisponiveisGreaterThan",
+        t ->
+          t.consultaRepository.findByEspecialidadeAndVagasDisponiveisGreaterThan(
+            "x",
+            0
+          ),
+        "x",
+        0
+      ),
+      caso(
+        "ConsultaRepository.findByMedicoAndVagasDisponiveisGreaterThan",
+        t ->
+          t.consultaRepository.findByMedicoAndVagasDisponiveisGreaterThan(
+            "x",
+            0
+          ),
+        "x",
+        0
+      ),
+      caso(
+        "ConsultaRepository.findByVagasDisponiveisGreaterThan",
+        t -> t.consultaRepository.findByVagasDisponiveisGreaterThan(0),
+        0
+      ),
+      // ConsultaSpecifications, compostas como em ConsultaService.buscar
+      caso(
+        "ConsultaService.buscar(especialidade)",
+        t ->
+          t.consultaRepository.findAll(
+            Specification.where(comEspecialidade("x")),
+            ORDEM_KEYSET
+          ),
+        "x"
+      ),
+      caso(
+        "ConsultaService.buscar(disponiveis)",
+        t ->
+          t.consultaRepository.findAll(
+            Specification.where(comVagasDisponiveis(true)),
+            ORDEM_KEYSET
+          ),
+        0
+      ),
+      caso(
+        "ConsultaService.buscar(inicio, fim, cursor, limite)",
+        t ->
+          t.consultaRepository.findBy(
+            Specification
+              .where(aPartirDe(INICIO))
+              .and(ate(FIM))
+              .and(aposCursor(INICIO, "x")),
+            q -> q.sortBy(ORDEM_KEYSET).limit(51).all()
+          ),
+        INICIO,
+        FIM,
+        INICIO,
+        INICIO,
+        "x",
+        51
+      ),
+      // AgendamentoRepository
+      caso(
+        "AgendamentoRepository.findByCodigoPaciente",
+        t -> t.agendamentoRepository.findByCodigoPaciente("x"),
+        "x"
+      ),
+      caso(
+        "AgendamentoRepository.findByMedico",
+        t -> t.agendamentoRepository.findByMedico("x"),
+        "x"
+      ),
+      caso(
+        "AgendamentoRepository.findByStatus",
+        t -> t.agendamentoRepository.findByStatus("x"),
+        "x"
+      ),
+      caso(
+        "AgendamentoRepository.findByDataBetween",
+        t -> t.agendamentoRepository.findByDataBetween(INICIO, FIM),
+        INICIO,
+        FIM
+      ),
+      // EspecialidadeRepository (índice trigram)
+      caso(
+        "EspecialidadeRepository.findByNomeContendo",
+        t -> t.especialidadeRepository.findByNomeContendo("card"),
+        "card"
+      ),
+      caso(
+        "EspecialidadeRepository.buscarSemelhantes",
+        t -> t.especialidadeRepository.buscarSemelhantes("card", "card", 10, 0),
+        "card",
+        "card",
+        "card",
+        10,
+        0
+      ),
+      // MedicoRepository. findByAtivo fica de fora: devolve praticamente a
+      // tabela inteira, então nenhum índice ajudaria, e o resultado já fica
+      // no cache de consultas
+      caso(
+        "MedicoRepository.findByEspecialidade",
+        t -> t.medicoRepository.findByEspecialidade("x"),
+        "x"
+      ),
+      caso(
+        "MedicoRepository.findByCrm",
+        t -> t.medicoRepository.findByCrm("x"),
+        "x"
+      ),
+      caso(
+        "MedicoRepository.findByEspecialidadeAndAtivo",
+        t -> t.medicoRepository.findByEspecialidadeAndAtivo("x", true),
+        "x",
+        true
+      ),
+      caso(
+        "MedicoRepository.buscarAtivosPorNome",
+        t -> t.medicoRepository.buscarAtivosPorNome("silva", "silva", 10, 0),
+        "silva",
+        "silva",
+        "silva",
+        "silva",
+        10,
+        0
+      )
+    );
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("buscasDosRepositories")
+  void buscaUsaIndice(
+    String busca,
+    Consumer<QueryPlanTests> chamada,
+    List<Object> parametros
+  ) {
+    chamada.accept(this);
+
+    assertThat(SqlCapturado.COMANDOS)
+      .as("SQL gerado por %s", busca)
+      .isNotEmpty();
+    String sql = SqlCapturado.COMANDOS.get(SqlCapturado.COMANDOS.size() - 1);
+
+    jdbcTemplate.execute("PREPARE plano AS " + numerarParametros(sql));
+    try {
+      String valores = parametros
+        .stream()
+        .map(QueryPlanTests::literal)
+        .collect(Collectors.joining(", "));
+      List<String> plano = jdbcTemplate.queryForList(
+        valores.isEmpty()
+          ? "EXPLAIN EXECUTE plano"
+          : "EXPLAIN EXECUTE plano(" + valores + ")",
+        String.class
+      );
+
+      assertThat(plano)
+        .as("Plano de execução de %s: %s", busca, sql)
+        .noneMatch(linha -> linha.contains("Seq Scan"));
+    } finally {
+      jdbcTemplate.execute("DEALLOCATE plano");
+    }
+  }
+
+  // O lote de FechamentoAgendaService vem de JdbcTemplate, não do Hibernate.
+  // Estes são os SELECTs da CTE montada em FechamentoAgendaService.Etapa.
+  @ParameterizedTest
+  @ValueSource(
+    strings = {
+      "SELECT codigo AS id, data FROM consulta WHERE status = 'x' AND data < now() ORDER BY data, codigo LIMIT 500",
+      "SELECT id AS id, data FROM agendamento WHERE status = 'x' AND data < now() ORDER BY data, id LIMIT 500",
+    }
+  )
+  void loteDoFechamentoUsaIndice(String sql) {
+    List<String> plano = jdbcTemplate.queryForList(
+      "EXPLAIN " + sql,
+      String.class
+    );
+
+    assertThat(plano)
+      .as("Plano de execução de: %s", sql)
+      .noneMatch(linha -> linha.contains("Seq Scan"));
+  }
+
+  private static Arguments caso(
+    String busca,
+    Consumer<QueryPlanTests> chamada,
+    Object... parametros
+  ) {
+    return Arguments.of(busca, chamada, List.of(parametros));
+  }
+
+  // O Hibernate usa ? e o PREPARE do PostgreSQL espera $1, $2...
+  private static String numerarParametros(String sql) {
+    StringBuilder numerado = new StringBuilder(sql.length() + 16);
+    boolean emTexto = false;
+    int parametro = 0;
+    for (char c : sql.toCharArray()) {
+      if (c == '\'') {
+        emTexto = !emTexto;
+      }
+      if (c == '?' && !emTexto) {
+        numerado.append('$').append(++parametro);
+      } else {
+        numerado.append(c);
+      }
+    }
+    return numerado.toString();
+  }
+
+  private static String literal(Object valor) {
+    if (valor instanceof Number || valor instanceof Boolean) {
+      return valor.toString();
+    }
+    return "'" + valor.toString().replace("'", "''") + "'";
+  }
+
+  /** Guarda os comandos que o Hibernate envia ao banco. */
+  public static class SqlCapturado implements StatementInspector {
+
+    static final List<String> COMANDOS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+      COMANDOS.add(sql);
+      return sql;
+    }
+  }
+}
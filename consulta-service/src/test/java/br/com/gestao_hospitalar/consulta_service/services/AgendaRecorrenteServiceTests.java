@@ -0,0 +1,252 @@
+package br.com.gestao_hospitalar.consulta_service.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.gestao_hospitalar.consulta_service.dto.RecorrenciaAgendaDTO;
+import br.com.gestao_hospitalar.consulta_service.dto.ResultadoRecorrenciaDTO;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Expansão da regra de recorrência em horários e separação dos horários que
+ * o médico já tem na agenda. O banco é simulado: aqui só interessa o que é
+ * enviado no lote de INSERT.
+ */
+class AgendaRecorrenteServiceTests {
+
+  // 02/03/2026 é uma segunda-feira
+  private static final LocalDate SEGUNDA = LocalDate.of(2026, 3, 2);
+
+  @Test
+  void expandeSoOsDiasDaSemanaDaRegraDentroDoPeriodo() {
+    RecorrenciaAgendaDTO regra = regra(
+      Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY),
+      LocalTime.of(8, 0),
+      LocalTime.of(9, 0),
+      30,
+      SEGUNDA,
+      SEGUNDA.plusDays(7),
+      null
+    );
+
+    assertThat(AgendaRecorrenteService.expandir(regra)).containsExactly(
+      SEGUNDA.atTime(8, 0),
+      SEGUNDA.atTime(8, 30),
+      SEGUNDA.plusDays(2).atTime(8, 0),
+      SEGUNDA.plusDays(2).atTime(8, 30),
+      SEGUNDA.plusDays(7).atTime(8, 0),
+      SEGUNDA.plusDays(7).atTime(8, 30)
+    );
+  }
+
+  @Test
+  void horarioQueTerminariaDepoisDaHoraFimNaoEGerado() {
+    RecorrenciaAgendaDTO regra = regra(
+      Set.of(DayOfWeek.MONDAY),
+      LocalTime.of(8, 0),
+      LocalTime.of(9, 10),
+      30,
+      SEGUNDA,
+      SEGUNDA,
+      null
+    );
+
+    assertThat(AgendaRecorrenteService.expandir(regra)).containsExactly(
+      SEGUNDA.atTime(8, 0),
+      SEGUNDA.atTime(8, 30)
+    );
+  }
+
+  @Test
+  void regraQueGeraHorariosDemaisERecusada() {
+    RecorrenciaAgendaDTO regra = regra(
+      Set.of(DayOfWeek.values()),
+      LocalTime.of(0, 0),
+      LocalTime.of(23, 59),
+      1,
+      SEGUNDA,
+      SEGUNDA.plusDays(30),
+      null
+    );
+
+    assertThatThrownBy(() -> AgendaRecorrenteService.expandir(regra))
+      .isInstanceOf(ResponseStatusException.class)
+      .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+      .isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  @Test
+  void faixaDeHorarioInvertidaERecusada() {
+    RecorrenciaAgendaDTO regra = regra(
+      Set.of(DayOfWeek.MONDAY),
+      LocalTime.of(10, 0),
+      LocalTime.of(8, 0),
+      30,
+      SEGUNDA,
+      SEGUNDA,
+      null
+    );
+
+    assertThatThrownBy(() -> AgendaRecorrenteService.expandir(regra))
+      .isInstanceOf(ResponseStatusException.class)
+      .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+      .isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  @Test
+  void statusForaDoEnumERecusadoAntesDeIrAoBanco() {
+    JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    RecorrenciaAgendaDTO regra = regra(
+      Set.of(DayOfWeek.MONDAY),
+      LocalTime.of(8, 0),
+      LocalTime.of(9, 0),
+      30,
+      SEGUNDA,
+      SEGUNDA,
+      "LIVRE"
+    );
+
+    assertThatThrownBy(() ->
+      new AgendaRecorrenteService(jdbcTemplate).gerar(regra)
+    )
+      .isInstanceOf(ResponseStatusException.class)
+      .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+      .isEqualTo(HttpStatus.BAD_REQUEST);
+    verify(jdbcTemplate, never()).batchUpdate(
+      any(String.class),
+      any(Collection.class),
+      anyInt(),
+      any(ParameterizedPreparedStatementSetter.class)
+    );
+  }
+
+  @Test
+  void statusEGravadoNormalizadoEDisponivelQuandoAusente() {
+    assertThat(
+      AgendaRecorrenteService.status(
+        regra(
+          Set.of(DayOfWeek.MONDAY),
+          LocalTime.of(8, 0),
+          LocalTime.of(9, 0),
+          30,
+          SEGUNDA,
+          SEGUNDA,
+          " cancelada "
+        )
+      ).name()
+    ).isEqualTo("CANCELADA");
+    assertThat(
+      AgendaRecorrenteService.status(
+        regra(
+          Set.of(DayOfWeek.MONDAY),
+          LocalTime.of(8, 0),
+          LocalTime.of(9, 0),
+          30,
+          SEGUNDA,
+          SEGUNDA,
+          ""
+        )
+      ).name()
+    ).isEqualTo("DISPONIVEL");
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void horariosJaExistentesVoltamComoDuplicadosENaoSaoInseridos()
+    throws Exception {
+    JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    when(
+      jdbcTemplate.query(
+        startsWith("SELECT data FROM consulta"),
+        any(RowMapper.class),
+        any(Object[].class)
+      )
+    ).thenReturn(List.of(SEGUNDA.atTime(8, 30)));
+    RecorrenciaAgendaDTO regra = regra(
+      Set.of(DayOfWeek.MONDAY),
+      LocalTime.of(8, 0),
+      LocalTime.of(9, 30),
+      30,
+      SEGUNDA,
+      SEGUNDA,
+      null
+    );
+
+    ResultadoRecorrenciaDTO resultado = new AgendaRecorrenteService(
+      jdbcTemplate
+    ).gerar(regra);
+
+    assertThat(resultado.criadas()).isEqualTo(2);
+    assertThat(resultado.horariosDuplicados()).containsExactly(
+      SEGUNDA.atTime(8, 30)
+    );
+
+    ArgumentCaptor<Collection<LocalDateTime>> lote = ArgumentCaptor.forClass(
+      Collection.class
+    );
+    ArgumentCaptor<ParameterizedPreparedStatementSetter<LocalDateTime>> setter =
+      ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+    verify(jdbcTemplate).batchUpdate(
+      startsWith("INSERT INTO consulta"),
+      lote.capture(),
+      anyInt(),
+      setter.capture()
+    );
+    assertThat(lote.getValue()).containsExactly(
+      SEGUNDA.atTime(8, 0),
+      SEGUNDA.atTime(9, 0)
+    );
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    setter.getValue().setValues(ps, SEGUNDA.atTime(8, 0));
+    verify(ps).setTimestamp(2, Timestamp.valueOf(SEGUNDA.atTime(8, 0)));
+    verify(ps).setString(8, "DISPONIVEL");
+    verify(ps).setString(4, "CRM-1");
+  }
+
+  private static RecorrenciaAgendaDTO regra(
+    Set<DayOfWeek> dias,
+    LocalTime horaInicio,
+    LocalTime horaFim,
+    int duracaoMinutos,
+    LocalDate dataInicio,
+    LocalDate dataFim,
+    String status
+  ) {
+    return new RecorrenciaAgendaDTO(
+      "CRM-1",
+      "Cardiologia",
+      dias,
+      horaInicio,
+      horaFim,
+      duracaoMinutos,
+      2,
+      150.0,
+      dataInicio,
+      dataFim,
+      status
+    );
+  }
+}
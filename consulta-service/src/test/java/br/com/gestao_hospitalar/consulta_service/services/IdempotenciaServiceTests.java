@@ -0,0 +1,186 @@
+package br.com.gestao_hospitalar.consulta_service.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Idempotency-Key contra a tabela das migrations: a repetição devolve a
+ * resposta gravada sem executar a operação de novo, a chave não pode ser
+ * reaproveitada com outro corpo e uma operação que falha não deixa a chave
+ * reservada.
+ *
+ * <p>Roda sem transação de teste para que cada chamada faça o próprio commit
+ * ou rollback, como numa requisição real. A "outra instância" é um segundo
+ * serviço com o cache em memória vazio, que só enxerga a tabela.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IdempotenciaService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class IdempotenciaServiceTests {
+
+  @Container
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+    "postgres:17"
+  );
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+  }
+
+  @Autowired
+  private IdempotenciaService idempotenciaService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private final AtomicInteger execucoes = new AtomicInteger();
+
+  private String chave;
+
+  @BeforeEach
+  void novaChave() {
+    chave = UUID.randomUUID().toString();
+  }
+
+  @Test
+  void repeticaoDevolveARespostaGravadaSemExecutarDeNovo() {
+    ResponseEntity<String> primeira = executar(
+      idempotenciaService,
+      Map.of("consulta", "C1")
+    );
+    ResponseEntity<String> repetida = executar(
+      idempotenciaService,
+      Map.of("consulta", "C1")
+    );
+    ResponseEntity<String> emOutraInstancia = executar(
+      outraInstancia(),
+      Map.of("consulta", "C1")
+    );
+
+    assertThat(execucoes).hasValue(1);
+    assertThat(primeira.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    assertThat(
+      primeira.getHeaders().getFirst(IdempotenciaService.HEADER_REPETIDA)
+    ).isEqualTo("false");
+    for (ResponseEntity<String> resposta : List.of(
+      repetida,
+      emOutraInstancia
+    )) {
+      assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+      assertThat(resposta.getBody()).isEqualTo(primeira.getBody());
+      assertThat(
+        resposta.getHeaders().getFirst(IdempotenciaService.HEADER_REPETIDA)
+      ).isEqualTo("true");
+    }
+  }
+
+  @Test
+  void mesmaChaveComOutroCorpoERecusada() {
+    executar(idempotenciaService, Map.of("consulta", "C1"));
+
+    for (IdempotenciaService servico : List.of(
+      idempotenciaService,
+      outraInstancia()
+    )) {
+      assertThatThrownBy(() -> executar(servico, Map.of("consulta", "C2")))
+        .isInstanceOf(ResponseStatusException.class)
+        .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+        .isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+    assertThat(execucoes).hasValue(1);
+  }
+
+  @Test
+  void operacaoQueFalhaLiberaAChave() {
+    assertThatThrownBy(() ->
+      idempotenciaService.executar(
+        chave,
+        Map.of("consulta", "C1"),
+        HttpStatus.CREATED,
+        () -> {
+          throw new ResponseStatusException(
+            HttpStatus.CONFLICT,
+            "Sem vagas"
+          );
+        }
+      )
+    ).isInstanceOf(ResponseStatusException.class);
+
+    assertThat(
+      jdbcTemplate.queryForObject(
+        "SELECT count(*) FROM idempotencia WHERE chave = ?",
+        Integer.class,
+        chave
+      )
+    ).isZero();
+
+    ResponseEntity<String> novaTentativa = executar(
+      idempotenciaService,
+      Map.of("consulta", "C1")
+    );
+
+    assertThat(execucoes).hasValue(1);
+    assertThat(novaTentativa.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    assertThat(
+      novaTentativa.getHeaders().getFirst(IdempotenciaService.HEADER_REPETIDA)
+    ).isEqualTo("false");
+  }
+
+  private ResponseEntity<String> executar(
+    IdempotenciaService servico,
+    Object requisicao
+  ) {
+    return servico.executar(chave, requisicao, HttpStatus.CREATED, () ->
+      Map.of("execucao", execucoes.incrementAndGet())
+    );
+  }
+
+  private IdempotenciaService outraInstancia() {
+    return new IdempotenciaService(
+      jdbcTemplate,
+      transactionManager,
+      objectMapper,
+      24,
+      100,
+      1000
+    );
+  }
+}
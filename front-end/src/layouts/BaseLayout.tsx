@@ -18,6 +18,7 @@ import { useNavigate } from "react-router";
 import { ROUTING } from "../constants/routing";
 import { useDispatch, useSelector } from "react-redux";
 import { logOut } from "../stores/slices/user.slice";
+import { logout } from "../services/auth/auth";
 import { RootState } from "../stores/store";
 
 const drawerWidth = 240;
@@ -72,7 +73,11 @@ export const BaseLayout: React.FC<BaseLayoutProps> = ({
 
   const handleLogout = () => {
     setAnchorEl(null);
-    // Adicione a lógica de logout aqui
+    const refreshToken = localStorage.getItem("refreshToken");
+    if (refreshToken) {
+      // Melhor esforço: sem resposta, a sessão expira sozinha
+      logout(refreshToken).catch(() => undefined);
+    }
     dispatch(logOut());
     navigate(ROUTING.LOGIN);
   };
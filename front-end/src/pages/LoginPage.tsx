@@ -81,6 +81,7 @@ export default function LoginPage() {
 
         dispatch(setAuth(decoded));
         localStorage.setItem("token", token);
+        localStorage.setItem("refreshToken", response.data.data.refreshToken);
         localStorage.setItem("user", decoded.type);
 
         // Exibir mensagem vinda da API no toast
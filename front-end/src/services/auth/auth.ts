@@ -16,3 +16,8 @@ export const signUp = async (cpf: string, email: string, type: string) => {
 export const resetPassword = async (email: string) => {
   return axiosConfig.post(`${prefix}/forgot-password`, { email });
 };
+
+/** Encerra a sessão no servidor e revoga o token de acesso atual */
+export const logout = async (refreshToken: string) => {
+  return axiosConfig.post(`${prefix}/logout`, { refreshToken });
+};
@@ -1,4 +1,4 @@
-import axios from "axios";
+import axios, { AxiosError, InternalAxiosRequestConfig } from "axios";
 
 const API_URL = import.meta.env.VITE_API_URL;
 
@@ -20,10 +20,59 @@ axiosConfig.interceptors.request.use(
   }
 );
 
+// Uma única renovação em andamento por vez: requisições que falham juntas
+// esperam a mesma, pois o refresh token só pode ser usado uma vez
+let renovacao: Promise<string | null> | null = null;
+
+const renovarToken = (): Promise<string | null> => {
+  const refreshToken = localStorage.getItem("refreshToken");
+  if (!refreshToken) return Promise.resolve(null);
+
+  if (renovacao) return renovacao;
+
+  renovacao = axios
+    .post(`${API_URL}/auth/refresh`, { refreshToken })
+    .then((response) => {
+      const { token, refreshToken: novoRefreshToken } = response.data.data;
+      localStorage.setItem("token", token);
+      localStorage.setItem("refreshToken", novoRefreshToken);
+      return token as string;
+    })
+    .catch(() => {
+      localStorage.removeItem("token");
+      localStorage.removeItem("refreshToken");
+      return null;
+    })
+    .finally(() => {
+      renovacao = null;
+    });
+
+  return renovacao;
+};
+
+type RequisicaoRepetivel = InternalAxiosRequestConfig & { _renovado?: boolean };
+
 // Interceptor para tratar erros de resposta e passar mensagem exata da API
 axiosConfig.interceptors.response.use(
   (response) => response, // resposta OK segue normalmente
-  (error) => {
+  async (error: AxiosError<{ error?: string }>) => {
+    // Token de acesso expirado ou revogado: renova a sessão e repete uma vez
+    const original = error.config as RequisicaoRepetivel | undefined;
+    const status = error.response?.status;
+    if (
+      original &&
+      !original._renovado &&
+      (status === 401 || status === 403) &&
+      !original.url?.startsWith("/auth/")
+    ) {
+      original._renovado = true;
+      const token = await renovarToken();
+      if (token) {
+        original.headers.Authorization = `Bearer ${token}`;
+        return axiosConfig(original);
+      }
+    }
+
     // Tenta extrair a mensagem de erro exata da API no campo 'error'
     if (error.response && error.response.data && error.response.data.error) {
       return Promise.reject(new Error(error.response.data.error));
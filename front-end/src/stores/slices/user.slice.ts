@@ -40,6 +40,7 @@ const userSlice = createSlice({
       state.profile = null;
       localStorage.removeItem("user");
       localStorage.removeItem("token");
+      localStorage.removeItem("refreshToken");
     },
   },
 });
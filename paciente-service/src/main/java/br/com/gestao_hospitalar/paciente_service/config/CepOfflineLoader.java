@@ -0,0 +1,110 @@
+package br.com.gestao_hospitalar.paciente_service.config;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carrega na tabela cep_cache uma base de CEPs offline, quando
+ * {@code cep.offline.arquivo} aponta para um arquivo no formato
+ * {@code cep;logradouro;bairro;cidade;uf} (UTF-8, cabeçalho opcional).
+ * CEPs já presentes na tabela não são sobrescritos.
+ */
+@Component
+public class CepOfflineLoader implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(
+    CepOfflineLoader.class
+  );
+
+  private static final int TAMANHO_LOTE = 5000;
+
+  private static final String INSERT =
+    "INSERT INTO cep_cache (cep, logradouro, bairro, cidade, estado, atualizado_em) " +
+    "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (cep) DO NOTHING";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final String arquivo;
+
+  public CepOfflineLoader(
+    JdbcTemplate jdbcTemplate,
+    @Value("${cep.offline.arquivo:}") String arquivo
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.arquivo = arquivo;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    if (arquivo == null || arquivo.isBlank()) {
+      return;
+    }
+
+    Path caminho = Path.of(arquivo);
+    if (!Files.isReadable(caminho)) {
+      log.warn("Base de CEPs offline não encontrada: {}", arquivo);
+      return;
+    }
+
+    Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+    long total = 0;
+
+    try (
+      BufferedReader reader = Files.newBufferedReader(
+        caminho,
+        StandardCharsets.UTF_8
+      )
+    ) {
+      String linha;
+      while ((linha = reader.readLine()) != null) {
+        String[] campos = linha.split(";", -1);
+        if (campos.length < 5) {
+          continue;
+        }
+        String cep = campos[0].replaceAll("\\D", "");
+        if (cep.length() != 8) {
+          continue; // cabeçalho ou linha inválida
+        }
+
+        lote.add(
+          new Object[] {
+            cep,
+            campos[1],
+            campos[2],
+            campos[3],
+            campos[4],
+            agora,
+          }
+        );
+        if (lote.size() == TAMANHO_LOTE) {
+          total += inserir(lote);
+        }
+      }
+    }
+    total += inserir(lote);
+
+    log.info("Base de CEPs offline carregada: {} linhas lidas", total);
+  }
+
+  private int inserir(List<Object[]> lote) {
+    int tamanho = lote.size();
+    if (tamanho > 0) {
+      jdbcTemplate.batchUpdate(INSERT, lote);
+      lote.clear();
+    }
+    return tamanho;
+  }
+}
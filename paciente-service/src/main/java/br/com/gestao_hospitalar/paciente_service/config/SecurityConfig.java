@@ -38,6 +38,7 @@ public class SecurityConfig {
     config.setAllowCredentials(true);
     config.setAllowedOrigins(Arrays.asList("http://localhost:3000")); // ajuste conforme seu front
     config.setAllowedHeaders(Arrays.asList("*"));
+    config.setExposedHeaders(Arrays.asList("X-Proximo-Cursor"));
     config.setAllowedMethods(
       Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS")
     );
@@ -1,22 +1,42 @@
 package br.com.gestao_hospitalar.paciente_service.controller;
 
 import br.com.gestao_hospitalar.paciente_service.dto.*;
+import br.com.gestao_hospitalar.paciente_service.exception.ApiException;
+import br.com.gestao_hospitalar.paciente_service.service.PacienteBuscaService;
+import br.com.gestao_hospitalar.paciente_service.service.PacienteExportService;
 import br.com.gestao_hospitalar.paciente_service.service.PacienteService;
+import br.com.gestao_hospitalar.paciente_service.service.PontosService;
 import br.com.gestao_hospitalar.paciente_service.util.ResponseUtil;
+import io.micrometer.core.annotation.Timed;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
+@Timed(value = "http.controller", histogram = true)
 @RequestMapping("")
 public class PacienteController {
 
   @Autowired
   private PacienteService pacienteService;
 
+  @Autowired
+  private PacienteBuscaService pacienteBuscaService;
+
+  @Autowired
+  private PacienteExportService pacienteExportService;
+
+  @Autowired
+  private PontosService pontosService;
+
   @GetMapping("/buscar")
   public ResponseEntity<
     ApiResponse<PacienteResponseDTO>
@@ -38,12 +58,50 @@ public class PacienteController {
     );
   }
 
+  // Autocompletar por nome, ordenado por relevância; o gateway só libera
+  // para FUNCIONARIO
+  @GetMapping("/buscar/nome")
+  public ResponseEntity<
+    ApiResponse<List<PacienteSugestaoDTO>>
+  > buscarPacientesPorNome(
+    HttpServletRequest request,
+    @RequestHeader(value = "x-user-type", required = false) String userType,
+    @RequestParam String q,
+    @RequestParam(required = false) Integer page,
+    @RequestParam(required = false) Integer size
+  ) {
+    exigirFuncionario(userType);
+    List<PacienteSugestaoDTO> pacientes = pacienteBuscaService.buscarPorNome(
+      q,
+      page,
+      size
+    );
+    return ResponseEntity.ok(
+      ResponseUtil.ok(
+        request.getRequestURI(),
+        "Pacientes encontrados com sucesso",
+        pacientes
+      )
+    );
+  }
+
+  // Dados de todos os pacientes: o gateway só libera para FUNCIONARIO
   @GetMapping("/todos")
   public ResponseEntity<
     ApiResponse<List<PacienteResponseDTO>>
-  > buscarTodosPacientes(HttpServletRequest request) {
-    List<PacienteResponseDTO> pacientes =
-      pacienteService.buscarTodosPacientes();
+  > buscarTodosPacientes(
+    HttpServletRequest request,
+    @RequestHeader(value = "x-user-type", required = false) String userType,
+    @RequestParam(required = false) Integer page,
+    @RequestParam(required = false) Integer size,
+    @RequestParam(required = false) UUID apos
+  ) {
+    exigirFuncionario(userType);
+    List<PacienteResponseDTO> pacientes = page == null &&
+      size == null &&
+      apos == null
+      ? pacienteService.buscarTodosPacientes()
+      : pacienteService.buscarPacientesPaginado(page, size, apos);
     return ResponseEntity.ok(
       ResponseUtil.ok(
         request.getRequestURI(),
@@ -53,6 +111,31 @@ public class PacienteController {
     );
   }
 
+  @GetMapping("/todos/exportar")
+  public ResponseEntity<StreamingResponseBody> exportarPacientes(
+    @RequestHeader(value = "x-user-type", required = false) String userType,
+    @RequestParam(defaultValue = "ndjson") String formato
+  ) {
+    exigirFuncionario(userType);
+    if ("csv".equalsIgnoreCase(formato)) {
+      return ResponseEntity.ok()
+        .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+        .header(
+          HttpHeaders.CONTENT_DISPOSITION,
+          "attachment; filename=\"pacientes.csv\""
+        )
+        .body(pacienteExportService::exportarCsv);
+    }
+
+    return ResponseEntity.ok()
+      .contentType(MediaType.APPLICATION_NDJSON)
+      .header(
+        HttpHeaders.CONTENT_DISPOSITION,
+        "attachment; filename=\"pacientes.ndjson\""
+      )
+      .body(pacienteExportService::exportarNdjson);
+  }
+
   @PutMapping("/editar/{id}")
   public ResponseEntity<ApiResponse<PacienteResponseDTO>> editarPaciente(
     HttpServletRequest request,
@@ -100,7 +183,7 @@ public class PacienteController {
     HttpServletRequest request
   ) {
     UUID pacienteId = getPacienteIdFromToken();
-    int saldo = pacienteService.consultarSaldo(pacienteId);
+    int saldo = pontosService.consultarSaldo(pacienteId);
     return ResponseEntity.ok(
       ResponseUtil.ok(
         request.getRequestURI(),
@@ -113,19 +196,39 @@ public class PacienteController {
   @GetMapping("/pontos/historico")
   public ResponseEntity<
     ApiResponse<List<TransacaoPontosResponseDTO>>
-  > consultarHistorico(HttpServletRequest request) {
+  > consultarHistorico(
+    HttpServletRequest request,
+    @RequestParam(required = false) String cursor,
+    @RequestParam(required = false) Integer limite
+  ) {
     UUID pacienteId = getPacienteIdFromToken();
-    List<TransacaoPontosResponseDTO> historico =
-      pacienteService.consultarHistorico(pacienteId);
-    return ResponseEntity.ok(
+    PaginaTransacoesPontos pagina = pontosService.consultarHistorico(
+      pacienteId,
+      cursor,
+      limite
+    );
+
+    // O cursor da próxima página vai no header para manter o corpo como lista
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (pagina.getProximoCursor() != null) {
+      response.header("X-Proximo-Cursor", pagina.getProximoCursor());
+    }
+    return response.body(
       ResponseUtil.ok(
         request.getRequestURI(),
         "Histórico de pontos retornado com sucesso",
-        historico
+        pagina.getTransacoes()
       )
     );
   }
 
+  // O api-gateway preenche x-user-type com o tipo do token
+  private static void exigirFuncionario(String userType) {
+    if (!"FUNCIONARIO".equals(userType)) {
+      throw new ApiException("Acesso negado", HttpStatus.FORBIDDEN);
+    }
+  }
+
   private UUID getPacienteIdFromToken() {
     var authentication =
       org.springframework.security.core.context.SecurityContextHolder.getContext()
@@ -0,0 +1,21 @@
+package br.com.gestao_hospitalar.paciente_service.dto;
+
+import br.com.gestao_hospitalar.paciente_service.entity.Paciente;
+import java.util.UUID;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Item do autocompletar de pacientes; só o necessário para exibir e
+// selecionar, sem CPF nem email
+@Data
+@NoArgsConstructor
+public class PacienteSugestaoDTO {
+
+  private UUID id;
+  private String nome;
+
+  public PacienteSugestaoDTO(Paciente paciente) {
+    this.id = paciente.getId();
+    this.nome = paciente.getNome();
+  }
+}
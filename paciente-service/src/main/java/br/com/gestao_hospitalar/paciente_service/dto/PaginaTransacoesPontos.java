@@ -0,0 +1,17 @@
+package br.com.gestao_hospitalar.paciente_service.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Página do histórico de pontos. {@code proximoCursor} é nulo quando não há
+ * mais lançamentos.
+ */
+@Data
+@AllArgsConstructor
+public class PaginaTransacoesPontos {
+
+  private List<TransacaoPontosResponseDTO> transacoes;
+  private String proximoCursor;
+}
@@ -0,0 +1,31 @@
+package br.com.gestao_hospitalar.paciente_service.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(name = "cep_cache")
+public class CepCache {
+
+  // Apenas dígitos, sem hífen
+  @Id
+  @Column(name = "cep", length = 8)
+  private String cep;
+
+  @Column(name = "logradouro")
+  private String logradouro;
+
+  @Column(name = "bairro")
+  private String bairro;
+
+  @Column(name = "cidade")
+  private String cidade;
+
+  @Column(name = "estado", length = 2)
+  private String estado;
+
+  @Column(name = "atualizado_em", nullable = false)
+  private LocalDateTime atualizadoEm;
+}
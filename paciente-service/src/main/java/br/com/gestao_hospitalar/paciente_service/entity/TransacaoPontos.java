@@ -4,9 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import lombok.Data;
+import org.hibernate.annotations.Immutable;
 
 @Data
 @Entity
+@Immutable
 @Table(name = "transacao_pontos")
 public class TransacaoPontos {
 
@@ -0,0 +1,6 @@
+package br.com.gestao_hospitalar.paciente_service.repository;
+
+import br.com.gestao_hospitalar.paciente_service.entity.CepCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CepCacheRepository extends JpaRepository<CepCache, String> {}
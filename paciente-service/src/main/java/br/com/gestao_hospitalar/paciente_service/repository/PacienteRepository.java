@@ -1,11 +1,129 @@
 package br.com.gestao_hospitalar.paciente_service.repository;
 
 import br.com.gestao_hospitalar.paciente_service.entity.Paciente;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface PacienteRepository extends JpaRepository<Paciente, UUID> {
   Optional<Paciente> findByEmail(String email);
   Optional<Paciente> findByCpf(String cpf);
+
+  // Paginação por offset sem a query de COUNT do Page
+  Slice<Paciente> findAllBy(Pageable pageable);
+
+  // Paginação por keyset no id
+  List<Paciente> findAllByOrderByIdAsc(Limit limit);
+  List<Paciente> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+  // Leitura por cursor JDBC para exportação; exige transação aberta
+  @QueryHints(
+    {
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+    }
+  )
+  @Query("SELECT p FROM Paciente p ORDER BY p.id")
+  Stream<Paciente> streamAll();
+
+  // Autocompletar por nome, em duas etapas (ver PacienteBuscaService).
+  // Faixa [inicio, fim) em lower(nome) COLLATE "C": usa o índice de prefixo
+  // mesmo com plano genérico, o que não acontece com LIKE parametrizado
+  @Query(
+    value = """
+    SELECT * FROM paciente
+    WHERE lower(nome) COLLATE "C" >= :inicio AND lower(nome) COLLATE "C" < :fim
+    ORDER BY lower(nome) COLLATE "C", id
+    LIMIT :limite
+    """,
+    nativeQuery = true
+  )
+  List<Paciente> buscarPorInicioDoNome(
+    @Param("inicio") String inicio,
+    @Param("fim") String fim,
+    @Param("limite") int limite
+  );
+
+  // Palavras do nome parecidas com o termo, em qualquer posição, sem repetir
+  // os que começam por ele. A subconsulta é uma busca KNN no índice GiST: as
+  // linhas saem em ordem de distância e a leitura para no LIMIT, sem ordenar
+  // todos os candidatos de um sobrenome comum. Só depois ficam de fora os
+  // distantes demais (abaixo de pg_trgm.word_similarity_threshold); como a
+  // ordem é por distância, nenhum mais próximo ficou para trás
+  @Query(
+    value = """
+    SELECT * FROM (
+      SELECT * FROM paciente
+      WHERE NOT (lower(nome) COLLATE "C" >= :inicio AND lower(nome) COLLATE "C" < :fim)
+      ORDER BY :termo <<-> nome
+      LIMIT :limite
+    ) candidatos
+    WHERE :termo <% nome
+    ORDER BY :termo <<-> nome
+    """,
+    nativeQuery = true
+  )
+  List<Paciente> buscarPorTrechoDoNome(
+    @Param("termo") String termo,
+    @Param("inicio") String inicio,
+    @Param("fim") String fim,
+    @Param("limite") int limite
+  );
+
+  // Saldo lido sem carregar a entidade
+  @Query("SELECT p.pontos FROM Paciente p WHERE p.id = :id")
+  Optional<Integer> findPontosById(@Param("id") UUID id);
+
+  // Crédito e débito atualizam o saldo e gravam o lançamento no extrato em
+  // um único comando. O débito só acontece se houver saldo; retorna 0 caso
+  // contrário ou se o paciente não existir.
+  @Modifying(clearAutomatically = true)
+  @Query(
+    value = """
+    WITH atualizado AS (
+      UPDATE paciente SET pontos = pontos + :quantidade
+      WHERE id = :id
+      RETURNING id
+    )
+    INSERT INTO transacao_pontos (paciente_id, tipo, descricao, quantidade, valor, data)
+    SELECT id, 'ENTRADA', :descricao, :quantidade, :valorReais, now() FROM atualizado
+    """,
+    nativeQuery = true
+  )
+  int creditarPontos(
+    @Param("id") UUID id,
+    @Param("quantidade") int quantidade,
+    @Param("descricao") String descricao,
+    @Param("valorReais") double valorReais
+  );
+
+  @Modifying(clearAutomatically = true)
+  @Query(
+    value = """
+    WITH atualizado AS (
+      UPDATE paciente SET pontos = pontos - :quantidade
+      WHERE id = :id AND pontos >= :quantidade
+      RETURNING id
+    )
+    INSERT INTO transacao_pontos (paciente_id, tipo, descricao, quantidade, valor, data)
+    SELECT id, 'SAIDA', :descricao, :quantidade, 0, now() FROM atualizado
+    """,
+    nativeQuery = true
+  )
+  int debitarPontos(
+    @Param("id") UUID id,
+    @Param("quantidade") int quantidade,
+    @Param("descricao") String descricao
+  );
 }
@@ -1,11 +1,64 @@
 package br.com.gestao_hospitalar.paciente_service.repository;
 
-import br.com.gestao_hospitalar.paciente_service.entity.Paciente;
 import br.com.gestao_hospitalar.paciente_service.entity.TransacaoPontos;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface TransacaoPontosRepository
   extends JpaRepository<TransacaoPontos, Long> {
-  List<TransacaoPontos> findByPacienteOrderByDataDesc(Paciente paciente);
+  /**
+   * Lançamento do extrato. O {@code id} só serve para montar o cursor da
+   * próxima página e não é exposto na resposta da API.
+   */
+  interface Lancamento {
+    Long getId();
+
+    String getTipo();
+
+    String getDescricao();
+
+    Integer getQuantidade();
+
+    Double getValorReais();
+
+    LocalDateTime getData();
+  }
+
+  // Histórico paginado por keyset em (data, id), servido pelo índice
+  // idx_transacao_pontos_paciente_data
+  @Query(
+    """
+    SELECT t.id AS id, t.tipo AS tipo, t.descricao AS descricao,
+      t.quantidade AS quantidade, t.valorReais AS valorReais, t.data AS data
+    FROM TransacaoPontos t
+    WHERE t.paciente.id = :pacienteId
+    ORDER BY t.data DESC, t.id DESC
+    """
+  )
+  List<Lancamento> buscarHistorico(
+    @Param("pacienteId") UUID pacienteId,
+    Limit limit
+  );
+
+  @Query(
+    """
+    SELECT t.id AS id, t.tipo AS tipo, t.descricao AS descricao,
+      t.quantidade AS quantidade, t.valorReais AS valorReais, t.data AS data
+    FROM TransacaoPontos t
+    WHERE t.paciente.id = :pacienteId
+      AND (t.data < :data OR (t.data = :data AND t.id < :id))
+    ORDER BY t.data DESC, t.id DESC
+    """
+  )
+  List<Lancamento> buscarHistoricoAposCursor(
+    @Param("pacienteId") UUID pacienteId,
+    @Param("data") LocalDateTime data,
+    @Param("id") Long id,
+    Limit limit
+  );
 }
@@ -1,32 +1,78 @@
 package br.com.gestao_hospitalar.paciente_service.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
 
   @Value("${jwt.secret}")
   private String jwtSecret;
 
+  @Value("${jwt.cache.max-entries:10000}")
+  private long cacheMaxEntries = 10000;
+
+  @Value("${jwt.cache.max-ttl-seconds:300}")
+  private long cacheMaxTtlSeconds = 300;
+
   private Key key;
 
+  // JwtParser é imutável e thread-safe: construído uma única vez
+  private JwtParser parser;
+
+  // Tokens já verificados, indexados pelo SHA-256 do token. Cada entrada
+  // expira junto com o token (limitado a cacheMaxTtlSeconds)
+  private Cache<ByteBuffer, Jws<Claims>> tokensVerificados;
+
+  // Protótipo clonado a cada hash. Um ThreadLocal não serve com threads
+  // virtuais, que são criadas por requisição e nunca reaproveitadas
+  private static final MessageDigest SHA256;
+
+  static {
+    try {
+      SHA256 = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   @PostConstruct
   public void init() {
     this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    this.tokensVerificados = Caffeine.newBuilder()
+      .maximumSize(cacheMaxEntries)
+      .expireAfter(new ExpiraComToken(cacheMaxTtlSeconds))
+      .recordStats()
+      .build();
   }
 
   public Jws<Claims> validateToken(String token) {
-    return Jwts.parserBuilder()
-      .setSigningKey(key)
-      .build()
-      .parseClaimsJws(token);
+    ByteBuffer chave = hash(token);
+    Jws<Claims> jws = tokensVerificados.getIfPresent(chave);
+    if (jws == null) {
+      jws = parser.parseClaimsJws(token);
+      tokensVerificados.put(chave, jws);
+    }
+    return jws;
   }
 
   public boolean isTokenExpired(String token) {
@@ -37,4 +83,80 @@ public class JwtUtil {
   public Map<String, Object> getClaims(String token) {
     return validateToken(token).getBody();
   }
+
+  /**
+   * Estatísticas de acerto/erro do cache de tokens verificados.
+   */
+  public CacheStats getCacheStats() {
+    return tokensVerificados.stats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, tokensVerificados, "jwt.tokens");
+  }
+
+  private static ByteBuffer hash(String token) {
+    return ByteBuffer.wrap(
+      novoSha256().digest(token.getBytes(StandardCharsets.UTF_8))
+    );
+  }
+
+  private static MessageDigest novoSha256() {
+    try {
+      return (MessageDigest) SHA256.clone();
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Remove a entrada do cache quando o token expira, para que um token
+   * vencido nunca seja devolvido sem passar novamente pelo parser.
+   */
+  private static class ExpiraComToken
+    implements Expiry<ByteBuffer, Jws<Claims>> {
+
+    private final long maxTtlNanos;
+
+    ExpiraComToken(long maxTtlSeconds) {
+      this.maxTtlNanos = TimeUnit.SECONDS.toNanos(maxTtlSeconds);
+    }
+
+    @Override
+    public long expireAfterCreate(
+      ByteBuffer key,
+      Jws<Claims> jws,
+      long currentTime
+    ) {
+      Date expiration = jws.getBody().getExpiration();
+      if (expiration == null) {
+        return maxTtlNanos;
+      }
+      long restante = TimeUnit.MILLISECONDS.toNanos(
+        expiration.getTime() - System.currentTimeMillis()
+      );
+      return Math.max(0, Math.min(restante, maxTtlNanos));
+    }
+
+    @Override
+    public long expireAfterUpdate(
+      ByteBuffer key,
+      Jws<Claims> jws,
+      long currentTime,
+      long currentDuration
+    ) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(
+      ByteBuffer key,
+      Jws<Claims> jws,
+      long currentTime,
+      long currentDuration
+    ) {
+      return currentDuration;
+    }
+  }
 }
@@ -0,0 +1,215 @@
+package br.com.gestao_hospitalar.paciente_service.service;
+
+import br.com.gestao_hospitalar.paciente_service.entity.CepCache;
+import br.com.gestao_hospitalar.paciente_service.exception.ApiException;
+import br.com.gestao_hospitalar.paciente_service.repository.CepCacheRepository;
+import br.com.gestao_hospitalar.paciente_service.util.CircuitBreaker;
+import br.com.gestao_hospitalar.paciente_service.via_cep.ViaCepResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Resolve endereços por CEP em camadas: cache em memória (LRU + TTL),
+ * tabela cep_cache (alimentada pelo ViaCEP e pela base offline) e, por
+ * último, o ViaCEP com timeouts e circuit breaker. Com o ViaCEP fora do ar,
+ * CEPs já conhecidos continuam resolvendo a partir da tabela.
+ */
+@Service
+public class CepService implements MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(CepService.class);
+
+  private final CepCacheRepository cepCacheRepository;
+  private final RestTemplate restTemplate;
+  private final CircuitBreaker circuitBreaker;
+  private final Cache<String, CepCache> cache;
+  private final String viaCepUrl;
+  private final Duration validadeTabela;
+
+  public CepService(
+    CepCacheRepository cepCacheRepository,
+    RestTemplateBuilder restTemplateBuilder,
+    @Value(
+      "${cep.viacep.url:https://viacep.com.br/ws/{cep}/json/}"
+    ) String viaCepUrl,
+    @Value("${cep.viacep.connect-timeout-ms:1000}") long connectTimeoutMs,
+    @Value("${cep.viacep.read-timeout-ms:2000}") long readTimeoutMs,
+    @Value("${cep.cache.max-entries:50000}") long cacheMaxEntries,
+    @Value("${cep.cache.ttl-hours:24}") long cacheTtlHours,
+    @Value("${cep.tabela.validade-dias:90}") long validadeTabelaDias,
+    @Value("${cep.circuit-breaker.failure-threshold:5}") int limiteFalhas,
+    @Value("${cep.circuit-breaker.open-seconds:30}") long tempoAbertoSegundos,
+    @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais
+  ) {
+    this.cepCacheRepository = cepCacheRepository;
+    this.viaCepUrl = viaCepUrl;
+    this.validadeTabela = Duration.ofDays(validadeTabelaDias);
+    this.restTemplate = restTemplateBuilder
+      .requestFactory(() ->
+        criarRequestFactory(connectTimeoutMs, readTimeoutMs, threadsVirtuais)
+      )
+      .build();
+    this.circuitBreaker = new CircuitBreaker(
+      limiteFalhas,
+      Duration.ofSeconds(tempoAbertoSegundos).toMillis()
+    );
+    this.cache = Caffeine.newBuilder()
+      .maximumSize(cacheMaxEntries)
+      .expireAfterWrite(Duration.ofHours(cacheTtlHours))
+      .recordStats()
+      .build();
+  }
+
+  public CepCache resolver(String cep) {
+    String normalizado = normalizar(cep);
+
+    CepCache endereco = cache.getIfPresent(normalizado);
+    if (endereco != null) {
+      return endereco;
+    }
+
+    Optional<CepCache> salvo = cepCacheRepository.findById(normalizado);
+    if (salvo.isPresent() && !expirado(salvo.get())) {
+      cache.put(normalizado, salvo.get());
+      return salvo.get();
+    }
+
+    try {
+      endereco = consultarViaCep(normalizado);
+    } catch (ApiException e) {
+      // Registro vencido ainda é melhor que falhar com o ViaCEP indisponível
+      if (
+        salvo.isPresent() && e.getStatus() == HttpStatus.SERVICE_UNAVAILABLE
+      ) {
+        log.warn("ViaCEP indisponível, usando endereço salvo para {}", cep);
+        cache.put(normalizado, salvo.get());
+        return salvo.get();
+      }
+      throw e;
+    }
+
+    cepCacheRepository.save(endereco);
+    cache.put(normalizado, endereco);
+    return endereco;
+  }
+
+  public CacheStats getCacheStats() {
+    return cache.stats();
+  }
+
+  public boolean isCircuitoAberto() {
+    return circuitBreaker.isAberto();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, "cep");
+    Gauge.builder(
+      "cep.viacep.circuito.aberto",
+      circuitBreaker,
+      c -> c.isAberto() ? 1 : 0
+    )
+      .description("1 enquanto o circuito do ViaCEP estiver aberto")
+      .register(registry);
+  }
+
+  /**
+   * Cliente HTTP do JDK: bloqueia sem prender a thread portadora quando a
+   * requisição roda em uma thread virtual. Com threads virtuais habilitadas,
+   * o trabalho assíncrono interno do cliente também usa threads virtuais.
+   */
+  private static JdkClientHttpRequestFactory criarRequestFactory(
+    long connectTimeoutMs,
+    long readTimeoutMs,
+    boolean threadsVirtuais
+  ) {
+    HttpClient.Builder httpClient = HttpClient.newBuilder()
+      .connectTimeout(Duration.ofMillis(connectTimeoutMs));
+    if (threadsVirtuais) {
+      httpClient.executor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+    JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(
+      httpClient.build()
+    );
+    factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+    return factory;
+  }
+
+  private CepCache consultarViaCep(String cep) {
+    if (!circuitBreaker.permiteChamada()) {
+      throw new ApiException(
+        "Serviço de CEP temporariamente indisponível",
+        HttpStatus.SERVICE_UNAVAILABLE
+      );
+    }
+
+    ViaCepResponse response;
+    try {
+      response = restTemplate.getForObject(viaCepUrl, ViaCepResponse.class, cep);
+      circuitBreaker.registrarSucesso();
+    } catch (RestClientException e) {
+      circuitBreaker.registrarFalha();
+      throw new ApiException(
+        "Erro ao consultar ViaCEP: " + e.getMessage(),
+        HttpStatus.SERVICE_UNAVAILABLE
+      );
+    }
+
+    boolean cepValido =
+      response != null &&
+      response.getCep() != null &&
+      (response.getErro() == null || Boolean.FALSE.equals(response.getErro()));
+
+    if (!cepValido) {
+      throw new ApiException(
+        "CEP inválido ou não encontrado",
+        HttpStatus.BAD_REQUEST
+      );
+    }
+
+    CepCache endereco = new CepCache();
+    endereco.setCep(cep);
+    endereco.setLogradouro(response.getLogradouro());
+    endereco.setBairro(response.getBairro());
+    endereco.setCidade(response.getLocalidade());
+    endereco.setEstado(response.getUf());
+    endereco.setAtualizadoEm(LocalDateTime.now());
+    return endereco;
+  }
+
+  private boolean expirado(CepCache endereco) {
+    return endereco
+      .getAtualizadoEm()
+      .isBefore(LocalDateTime.now().minus(validadeTabela));
+  }
+
+  static String normalizar(String cep) {
+    String digitos = cep == null ? "" : cep.replaceAll("\\D", "");
+    if (digitos.length() != 8) {
+      throw new ApiException(
+        "CEP inválido ou não encontrado",
+        HttpStatus.BAD_REQUEST
+      );
+    }
+    return digitos;
+  }
+}
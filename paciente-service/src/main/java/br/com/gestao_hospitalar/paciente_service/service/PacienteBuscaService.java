@@ -0,0 +1,91 @@
+package br.com.gestao_hospitalar.paciente_service.service;
+
+import br.com.gestao_hospitalar.paciente_service.dto.PacienteSugestaoDTO;
+import br.com.gestao_hospitalar.paciente_service.entity.Paciente;
+import br.com.gestao_hospitalar.paciente_service.repository.PacienteRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Autocompletar de pacientes pelo nome. Primeiro vêm os nomes que começam
+ * pelo termo, lidos em ordem pelo índice de prefixo e interrompidos no
+ * limite; só se eles não completarem a página a busca segue para palavras
+ * parecidas com o termo no meio do nome. Essa segunda etapa roda também para
+ * sobrenomes comuns ("silva" começa poucos nomes mas aparece em muitos), por
+ * isso é uma busca KNN no índice GiST trigram: os nomes saem em ordem de
+ * semelhança e a leitura para no limite, sem ordenar todos os candidatos.
+ */
+@Service
+public class PacienteBuscaService {
+
+  private static final int TAMANHO_PADRAO = 10;
+  private static final int TAMANHO_MAXIMO = 20;
+  // Autocompletar, não listagem: passando disso o usuário refina o termo
+  private static final int PAGINA_MAXIMA = 4;
+  private static final int TAMANHO_MAXIMO_TERMO = 100;
+  // Abaixo de 3 caracteres não há trigrama completo para o índice usar
+  private static final int TAMANHO_MINIMO_TRECHO = 3;
+
+  @Autowired
+  private PacienteRepository pacienteRepository;
+
+  public List<PacienteSugestaoDTO> buscarPorNome(
+    String termo,
+    Integer page,
+    Integer size
+  ) {
+    String limpo = termo == null ? "" : termo.strip();
+    int pagina = page != null ? page : 0;
+    if (limpo.isEmpty() || pagina < 0 || pagina > PAGINA_MAXIMA) {
+      return List.of();
+    }
+    if (limpo.length() > TAMANHO_MAXIMO_TERMO) {
+      limpo = limpo.substring(0, TAMANHO_MAXIMO_TERMO);
+    }
+    int tamanho = Math.max(
+      1,
+      Math.min(size != null ? size : TAMANHO_PADRAO, TAMANHO_MAXIMO)
+    );
+    int offset = pagina * tamanho;
+    int necessarios = offset + tamanho;
+
+    String inicio = limpo.toLowerCase(Locale.ROOT);
+    String fim = proximoPrefixo(inicio);
+
+    List<Paciente> encontrados = new ArrayList<>(
+      pacienteRepository.buscarPorInicioDoNome(inicio, fim, necessarios)
+    );
+    if (
+      encontrados.size() < necessarios &&
+      limpo.length() >= TAMANHO_MINIMO_TRECHO
+    ) {
+      encontrados.addAll(
+        pacienteRepository.buscarPorTrechoDoNome(
+          limpo,
+          inicio,
+          fim,
+          necessarios - encontrados.size()
+        )
+      );
+    }
+
+    return encontrados
+      .stream()
+      .skip(offset)
+      .map(PacienteSugestaoDTO::new)
+      .toList();
+  }
+
+  // Menor texto maior que todos os que começam pelo prefixo, na ordem do
+  // collation "C" (ordem dos code points)
+  private static String proximoPrefixo(String prefixo) {
+    int ultimo = prefixo.codePointBefore(prefixo.length());
+    return (
+      prefixo.substring(0, prefixo.length() - Character.charCount(ultimo)) +
+      Character.toString(ultimo + 1)
+    );
+  }
+}
@@ -0,0 +1,120 @@
+package br.com.gestao_hospitalar.paciente_service.service;
+
+import br.com.gestao_hospitalar.paciente_service.dto.PacienteResponseDTO;
+import br.com.gestao_hospitalar.paciente_service.entity.Paciente;
+import br.com.gestao_hospitalar.paciente_service.repository.PacienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Exporta todos os pacientes lendo por cursor JDBC e escrevendo direto na
+ * resposta, linha a linha. Cada entidade é descartada do contexto de
+ * persistência após ser escrita, então o uso de memória não cresce com a
+ * quantidade de pacientes.
+ */
+@Service
+public class PacienteExportService {
+
+  private static final String CABECALHO_CSV =
+    "id,cpf,email,nome,telefone,cep,logradouro,numero,complemento,bairro,cidade,estado,pontos\n";
+
+  @Autowired
+  private PacienteRepository pacienteRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Transactional(readOnly = true)
+  public void exportarNdjson(OutputStream saida) throws IOException {
+    ObjectWriter writer = objectMapper.writerFor(PacienteResponseDTO.class);
+    OutputStream out = new BufferedOutputStream(saida);
+    exportar(paciente -> {
+      out.write(writer.writeValueAsBytes(new PacienteResponseDTO(paciente)));
+      out.write('\n');
+    });
+    out.flush();
+  }
+
+  @Transactional(readOnly = true)
+  public void exportarCsv(OutputStream saida) throws IOException {
+    OutputStream out = new BufferedOutputStream(saida);
+    out.write(CABECALHO_CSV.getBytes(StandardCharsets.UTF_8));
+    exportar(paciente -> out.write(linhaCsv(paciente)));
+    out.flush();
+  }
+
+  private void exportar(Escritor escritor) throws IOException {
+    try (Stream<Paciente> pacientes = pacienteRepository.streamAll()) {
+      Iterator<Paciente> iterator = pacientes.iterator();
+      while (iterator.hasNext()) {
+        Paciente paciente = iterator.next();
+        escritor.escrever(paciente);
+        entityManager.detach(paciente);
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static byte[] linhaCsv(Paciente p) {
+    StringBuilder linha = new StringBuilder(256);
+    Object[] campos = {
+      p.getId(),
+      p.getCpf(),
+      p.getEmail(),
+      p.getNome(),
+      p.getTelefone(),
+      p.getCep(),
+      p.getLogradouro(),
+      p.getNumero(),
+      p.getComplemento(),
+      p.getBairro(),
+      p.getCidade(),
+      p.getEstado(),
+      p.getPontos(),
+    };
+    for (int i = 0; i < campos.length; i++) {
+      if (i > 0) {
+        linha.append(',');
+      }
+      linha.append(escaparCsv(campos[i]));
+    }
+    return linha.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String escaparCsv(Object valor) {
+    if (valor == null) {
+      return "";
+    }
+    String texto = valor.toString();
+    if (
+      texto.indexOf(',') < 0 &&
+      texto.indexOf('"') < 0 &&
+      texto.indexOf('\n') < 0 &&
+      texto.indexOf('\r') < 0
+    ) {
+      return texto;
+    }
+    return "\"" + texto.replace("\"", "\"\"") + "\"";
+  }
+
+  @FunctionalInterface
+  private interface Escritor {
+    void escrever(Paciente paciente) throws IOException;
+  }
+}
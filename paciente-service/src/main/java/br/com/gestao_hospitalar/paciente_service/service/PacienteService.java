@@ -2,21 +2,23 @@ package br.com.gestao_hospitalar.paciente_service.service;
 
 import br.com.gestao_hospitalar.paciente_service.dto.PacienteRequestDTO;
 import br.com.gestao_hospitalar.paciente_service.dto.PacienteResponseDTO;
-import br.com.gestao_hospitalar.paciente_service.dto.TransacaoPontosResponseDTO;
+import br.com.gestao_hospitalar.paciente_service.entity.CepCache;
 import br.com.gestao_hospitalar.paciente_service.entity.Paciente;
-import br.com.gestao_hospitalar.paciente_service.entity.TransacaoPontos;
 import br.com.gestao_hospitalar.paciente_service.exception.ApiException;
 import br.com.gestao_hospitalar.paciente_service.repository.PacienteRepository;
-import br.com.gestao_hospitalar.paciente_service.repository.TransacaoPontosRepository;
-import br.com.gestao_hospitalar.paciente_service.via_cep.ViaCepResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 @Service
 public class PacienteService {
@@ -28,9 +30,22 @@ public class PacienteService {
   private PacienteRepository pacienteRepository;
 
   @Autowired
-  private TransacaoPontosRepository transacaoPontosRepository;
+  private CepService cepService;
 
-  private final RestTemplate restTemplate = new RestTemplate();
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private Timer timerEnderecoViaCep;
+
+  private static final int TAMANHO_MAXIMO_PAGINA = 500;
+
+  @PostConstruct
+  public void init() {
+    this.timerEnderecoViaCep = Timer.builder("paciente.endereco.viacep")
+      .description("Tempo para resolver o endereço do paciente pelo CEP")
+      .publishPercentileHistogram()
+      .register(meterRegistry);
+  }
 
   public PacienteResponseDTO completarCadastro(
     UUID id,
@@ -86,6 +101,41 @@ public class PacienteService {
       .collect(Collectors.toList());
   }
 
+  /**
+   * Busca uma página de pacientes ordenada por id. Com {@code apos}
+   * informado usa keyset (pacientes com id maior que o informado), que não
+   * degrada em páginas distantes; caso contrário usa {@code page}/{@code size}.
+   */
+  public List<PacienteResponseDTO> buscarPacientesPaginado(
+    Integer page,
+    Integer size,
+    UUID apos
+  ) {
+    int tamanho = Math.max(
+      1,
+      Math.min(size != null ? size : 50, TAMANHO_MAXIMO_PAGINA)
+    );
+
+    List<Paciente> pacientes;
+    if (apos != null) {
+      pacientes = pacienteRepository.findByIdGreaterThanOrderByIdAsc(
+        apos,
+        Limit.of(tamanho)
+      );
+    } else if (page != null && page > 0) {
+      pacientes = pacienteRepository
+        .findAllBy(PageRequest.of(page, tamanho, Sort.by("id")))
+        .getContent();
+    } else {
+      pacientes = pacienteRepository.findAllByOrderByIdAsc(Limit.of(tamanho));
+    }
+
+    return pacientes
+      .stream()
+      .map(this::toResponseDTO)
+      .collect(Collectors.toList());
+  }
+
   public PacienteResponseDTO editarPaciente(UUID id, PacienteRequestDTO dto) {
     Paciente paciente = pacienteRepository
       .findById(id)
@@ -107,72 +157,18 @@ public class PacienteService {
   }
 
   private void preencherEnderecoViaCep(Paciente paciente, String cep) {
-    try {
-      String url = "https://viacep.com.br/ws/" + cep + "/json/";
-      ViaCepResponse response = restTemplate.getForObject(
-        url,
-        ViaCepResponse.class
-      );
-
-      boolean cepValido =
-        response != null &&
-        response.getCep() != null &&
-        (response.getErro() == null ||
-          Boolean.FALSE.equals(response.getErro()));
-
-      if (cepValido) {
-        paciente.setLogradouro(response.getLogradouro());
-        paciente.setBairro(response.getBairro());
-        paciente.setCidade(response.getLocalidade());
-        paciente.setEstado(response.getUf());
-      } else {
-        throw new ApiException(
-          "CEP inválido ou não encontrado",
-          HttpStatus.BAD_REQUEST
-        );
-      }
-    } catch (Exception e) {
-      throw new ApiException(
-        "Erro ao consultar ViaCEP: " + e.getMessage(),
-        HttpStatus.BAD_REQUEST
-      );
-    }
+    CepCache endereco = timerEnderecoViaCep.record(() ->
+      cepService.resolver(cep)
+    );
+    paciente.setLogradouro(endereco.getLogradouro());
+    paciente.setBairro(endereco.getBairro());
+    paciente.setCidade(endereco.getCidade());
+    paciente.setEstado(endereco.getEstado());
   }
 
   private PacienteResponseDTO toResponseDTO(Paciente paciente) {
     return new PacienteResponseDTO(paciente);
   }
 
-  public int consultarSaldo(UUID id) {
-    Paciente paciente = pacienteRepository
-      .findById(id)
-      .orElseThrow(() ->
-        new ApiException("Paciente não encontrado", HttpStatus.NOT_FOUND)
-      );
-    return paciente.getPontos();
-  }
-
-  public List<TransacaoPontosResponseDTO> consultarHistorico(UUID id) {
-    Paciente paciente = pacienteRepository
-      .findById(id)
-      .orElseThrow(() ->
-        new ApiException("Paciente não encontrado", HttpStatus.NOT_FOUND)
-      );
-    List<TransacaoPontos> transacoes =
-      transacaoPontosRepository.findByPacienteOrderByDataDesc(paciente);
-
-    return transacoes
-      .stream()
-      .map(t -> {
-        TransacaoPontosResponseDTO dto = new TransacaoPontosResponseDTO();
-        dto.setTipo(t.getTipo());
-        dto.setDescricao(t.getDescricao());
-        dto.setQuantidade(t.getQuantidade());
-        dto.setValorReais(t.getValorReais());
-        dto.setData(t.getData());
-        return dto;
-      })
-      .collect(Collectors.toList());
-  }
   // Removido Stripe temporariamente
 }
@@ -0,0 +1,173 @@
+package br.com.gestao_hospitalar.paciente_service.service;
+
+import br.com.gestao_hospitalar.paciente_service.dto.PaginaTransacoesPontos;
+import br.com.gestao_hospitalar.paciente_service.dto.TransacaoPontosResponseDTO;
+import br.com.gestao_hospitalar.paciente_service.exception.ApiException;
+import br.com.gestao_hospitalar.paciente_service.repository.PacienteRepository;
+import br.com.gestao_hospitalar.paciente_service.repository.TransacaoPontosRepository;
+import br.com.gestao_hospitalar.paciente_service.repository.TransacaoPontosRepository.Lancamento;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Saldo e extrato de pontos do paciente. O saldo fica em
+ * {@code paciente.pontos} e é sempre alterado junto com a inserção do
+ * lançamento em {@code transacao_pontos}, no mesmo comando SQL.
+ */
+@Service
+public class PontosService {
+
+  private static final int LIMITE_PADRAO = 20;
+  private static final int LIMITE_MAXIMO = 200;
+
+  @Autowired
+  private PacienteRepository pacienteRepository;
+
+  @Autowired
+  private TransacaoPontosRepository transacaoPontosRepository;
+
+  @Value("${pontos.valor-reais:5.00}")
+  private double valorPontoReais;
+
+  public int consultarSaldo(UUID id) {
+    return pacienteRepository
+      .findPontosById(id)
+      .orElseThrow(() ->
+        new ApiException("Paciente não encontrado", HttpStatus.NOT_FOUND)
+      );
+  }
+
+  /**
+   * Retorna uma página do extrato, do lançamento mais recente para o mais
+   * antigo. Para a página seguinte, informe o {@code proximoCursor}
+   * devolvido pela anterior.
+   */
+  public PaginaTransacoesPontos consultarHistorico(
+    UUID id,
+    String cursor,
+    Integer limite
+  ) {
+    int tamanho = Math.max(
+      1,
+      Math.min(limite != null ? limite : LIMITE_PADRAO, LIMITE_MAXIMO)
+    );
+
+    List<Lancamento> lancamentos;
+    if (cursor == null || cursor.isEmpty()) {
+      if (!pacienteRepository.existsById(id)) {
+        throw new ApiException("Paciente não encontrado", HttpStatus.NOT_FOUND);
+      }
+      lancamentos = transacaoPontosRepository.buscarHistorico(
+        id,
+        Limit.of(tamanho + 1)
+      );
+    } else {
+      String[] partes = decodificarCursor(cursor);
+      lancamentos = transacaoPontosRepository.buscarHistoricoAposCursor(
+        id,
+        LocalDateTime.parse(partes[0]),
+        Long.valueOf(partes[1]),
+        Limit.of(tamanho + 1)
+      );
+    }
+
+    String proximoCursor = null;
+    if (lancamentos.size() > tamanho) {
+      lancamentos = lancamentos.subList(0, tamanho);
+      proximoCursor = codificarCursor(lancamentos.get(tamanho - 1));
+    }
+    return new PaginaTransacoesPontos(
+      lancamentos.stream().map(PontosService::paraResposta).toList(),
+      proximoCursor
+    );
+  }
+
+  /**
+   * Credita pontos comprados. Não há endpoint para isso: só deve ser chamado
+   * depois que o pagamento for confirmado.
+   */
+  @Transactional
+  public int comprarPontos(UUID id, int quantidade) {
+    validarQuantidade(quantidade);
+    int inseridos = pacienteRepository.creditarPontos(
+      id,
+      quantidade,
+      "Compra de pontos",
+      quantidade * valorPontoReais
+    );
+    if (inseridos == 0) {
+      throw new ApiException("Paciente não encontrado", HttpStatus.NOT_FOUND);
+    }
+    return consultarSaldo(id);
+  }
+
+  @Transactional
+  public int usarPontos(UUID id, int quantidade, String descricao) {
+    validarQuantidade(quantidade);
+    int inseridos = pacienteRepository.debitarPontos(
+      id,
+      quantidade,
+      descricao != null && !descricao.isBlank() ? descricao : "Uso de pontos"
+    );
+    if (inseridos == 0) {
+      if (!pacienteRepository.existsById(id)) {
+        throw new ApiException("Paciente não encontrado", HttpStatus.NOT_FOUND);
+      }
+      throw new ApiException("Saldo de pontos insuficiente", HttpStatus.BAD_REQUEST);
+    }
+    return consultarSaldo(id);
+  }
+
+  private void validarQuantidade(int quantidade) {
+    if (quantidade <= 0) {
+      throw new ApiException(
+        "Quantidade de pontos deve ser maior que zero",
+        HttpStatus.BAD_REQUEST
+      );
+    }
+  }
+
+  private static TransacaoPontosResponseDTO paraResposta(Lancamento lancamento) {
+    TransacaoPontosResponseDTO dto = new TransacaoPontosResponseDTO();
+    dto.setTipo(lancamento.getTipo());
+    dto.setDescricao(lancamento.getDescricao());
+    dto.setQuantidade(lancamento.getQuantidade());
+    dto.setValorReais(lancamento.getValorReais());
+    dto.setData(lancamento.getData());
+    return dto;
+  }
+
+  private String codificarCursor(Lancamento lancamento) {
+    String valor = lancamento.getData() + "|" + lancamento.getId();
+    return Base64.getUrlEncoder()
+      .withoutPadding()
+      .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private String[] decodificarCursor(String cursor) {
+    try {
+      String valor = new String(
+        Base64.getUrlDecoder().decode(cursor),
+        StandardCharsets.UTF_8
+      );
+      String[] partes = valor.split("\\|", 2);
+      if (partes.length != 2) {
+        throw new IllegalArgumentException("Cursor incompleto");
+      }
+      LocalDateTime.parse(partes[0]);
+      Long.valueOf(partes[1]);
+      return partes;
+    } catch (RuntimeException e) {
+      throw new ApiException("Cursor inválido", HttpStatus.BAD_REQUEST);
+    }
+  }
+}
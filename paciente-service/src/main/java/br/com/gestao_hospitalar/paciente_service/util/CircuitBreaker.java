@@ -0,0 +1,53 @@
+package br.com.gestao_hospitalar.paciente_service.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Circuit breaker simples para chamadas externas. Após
+ * {@code limiteFalhas} falhas consecutivas o circuito abre e as chamadas
+ * são recusadas por {@code tempoAbertoMs}; depois disso uma única chamada
+ * de teste é liberada e, se tiver sucesso, o circuito fecha novamente.
+ */
+public class CircuitBreaker {
+
+  private final int limiteFalhas;
+  private final long tempoAbertoMs;
+
+  private final AtomicInteger falhasConsecutivas = new AtomicInteger();
+  private final AtomicLong abertoAte = new AtomicLong();
+
+  public CircuitBreaker(int limiteFalhas, long tempoAbertoMs) {
+    this.limiteFalhas = limiteFalhas;
+    this.tempoAbertoMs = tempoAbertoMs;
+  }
+
+  /**
+   * Indica se a chamada pode ser feita. Com o circuito aberto e o tempo de
+   * espera vencido, apenas a thread que conseguir reagendar o fim da janela
+   * faz a chamada de teste.
+   */
+  public boolean permiteChamada() {
+    long ate = abertoAte.get();
+    if (ate == 0) {
+      return true;
+    }
+    long agora = System.currentTimeMillis();
+    return agora >= ate && abertoAte.compareAndSet(ate, agora + tempoAbertoMs);
+  }
+
+  public void registrarSucesso() {
+    falhasConsecutivas.set(0);
+    abertoAte.set(0);
+  }
+
+  public void registrarFalha() {
+    if (falhasConsecutivas.incrementAndGet() >= limiteFalhas) {
+      abertoAte.set(System.currentTimeMillis() + tempoAbertoMs);
+    }
+  }
+
+  public boolean isAberto() {
+    return abertoAte.get() != 0;
+  }
+}
@@ -0,0 +1,9 @@
+-- Endereços já resolvidos (via ViaCEP ou base offline)
+CREATE TABLE cep_cache (
+    cep VARCHAR(8) PRIMARY KEY,
+    logradouro VARCHAR(255),
+    bairro VARCHAR(255),
+    cidade VARCHAR(255),
+    estado VARCHAR(2),
+    atualizado_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,27 @@
+-- Histórico de pontos lido por paciente em ordem decrescente de data,
+-- com id como desempate para a paginação por cursor
+CREATE INDEX idx_transacao_pontos_paciente_data
+    ON transacao_pontos (paciente_id, data DESC, id DESC);
+
+UPDATE paciente SET pontos = 0 WHERE pontos IS NULL;
+ALTER TABLE paciente ALTER COLUMN pontos SET NOT NULL;
+ALTER TABLE paciente
+    ADD CONSTRAINT ck_paciente_pontos_nao_negativo CHECK (pontos >= 0);
+
+-- A paginação do extrato usa (data, id) como cursor: um lançamento sem data
+-- seria pulado ou impediria montar o próximo cursor
+UPDATE transacao_pontos SET data = CURRENT_TIMESTAMP WHERE data IS NULL;
+ALTER TABLE transacao_pontos ALTER COLUMN data SET NOT NULL;
+
+-- O extrato é somente inserção: lançamentos não são alterados depois de
+-- gravados. Exclusões continuam permitidas para o ON DELETE CASCADE do
+-- paciente.
+CREATE FUNCTION transacao_pontos_somente_insercao() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'transacao_pontos não permite alteração de lançamentos';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transacao_pontos_somente_insercao
+    BEFORE UPDATE ON transacao_pontos
+    FOR EACH ROW EXECUTE FUNCTION transacao_pontos_somente_insercao();
@@ -0,0 +1,11 @@
+-- Autocompletar de pacientes pelo nome.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Nomes que começam pelo termo: faixa em lower(nome) com collation "C",
+-- já na ordem de exibição, então a busca para no LIMIT
+CREATE INDEX IF NOT EXISTS idx_paciente_nome_prefixo
+    ON paciente ((lower(nome) COLLATE "C"), id);
+
+-- Trecho em qualquer posição do nome (ILIKE '%x%' e word_similarity)
+CREATE INDEX IF NOT EXISTS idx_paciente_nome_trgm
+    ON paciente USING gin (nome gin_trgm_ops);
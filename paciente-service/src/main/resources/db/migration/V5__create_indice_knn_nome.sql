@@ -0,0 +1,8 @@
+-- Trecho do autocompletar por vizinhos mais próximos: o índice GiST devolve
+-- os nomes já na ordem de :termo <<-> nome, então a busca para no LIMIT em
+-- vez de ordenar todos os que contêm um sobrenome comum. O GIN não serve
+-- para ORDER BY por distância.
+CREATE INDEX IF NOT EXISTS idx_paciente_nome_trgm_gist
+    ON paciente USING gist (nome gist_trgm_ops);
+
+DROP INDEX IF EXISTS idx_paciente_nome_trgm;
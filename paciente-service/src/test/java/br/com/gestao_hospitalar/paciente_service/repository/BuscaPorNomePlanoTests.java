@@ -0,0 +1,158 @@
+package br.com.gestao_hospitalar.paciente_service.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Plano das duas etapas do autocompletar numa tabela grande, com um
+ * sobrenome comum ("silva" aparece em um de cada oito nomes, mas nenhum
+ * começa por ele). As duas etapas precisam ler o índice já na ordem do
+ * resultado e parar no LIMIT, em vez de buscar todos os candidatos (Bitmap
+ * ou Seq Scan) e ordená-los.
+ *
+ * <p>O SQL é o que o Hibernate gera para o método do repository, preparado
+ * com os mesmos valores da chamada.
+ */
+@DataJpaTest(
+  properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.gestao_hospitalar.paciente_service.repository.BuscaPorNomePlanoTests$SqlCapturado"
+)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class BuscaPorNomePlanoTests {
+
+  private static final int PACIENTES = 500_000;
+
+  @Container
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+    "postgres:17"
+  );
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+  }
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PacienteRepository pacienteRepository;
+
+  @BeforeEach
+  void popularPacientes() {
+    jdbcTemplate.update(
+      """
+      INSERT INTO paciente (id, cpf, email, nome)
+      SELECT gen_random_uuid(), lpad(i::text, 11, '0'), 'p' || i || '@teste.com',
+        (ARRAY['Ana', 'Bruno', 'Carla', 'Diego', 'Elisa', 'Fabio', 'Gabriela', 'Hugo'])[1 + i % 8]
+        || ' ' || (ARRAY['Silva', 'Santos', 'Oliveira', 'Souza', 'Lima', 'Pereira', 'Costa', 'Rocha'])[1 + (i / 8) % 8]
+        || ' ' || (ARRAY['Almeida', 'Barbosa', 'Cardoso', 'Dias', 'Esteves', 'Freitas', 'Gomes', 'Teixeira'])[1 + (i / 64) % 8]
+        || ' ' || i
+      FROM generate_series(1, ?) AS i
+      """,
+      PACIENTES
+    );
+    jdbcTemplate.execute("ANALYZE paciente");
+    SqlCapturado.COMANDOS.clear();
+  }
+
+  @Test
+  void nomesQueComecamPeloTermoSaemDoIndiceDePrefixo() {
+    pacienteRepository.buscarPorInicioDoNome("ana", "anb", 10);
+
+    List<String> plano = explicar("ana", "anb", 10);
+
+    assertThat(plano)
+      .anyMatch(linha -> linha.contains("idx_paciente_nome_prefixo"))
+      .noneMatch(linha -> linha.contains("Sort"))
+      .noneMatch(linha -> linha.contains("Seq Scan"));
+  }
+
+  @Test
+  void sobrenomeComumNaoOrdenaTodosOsCandidatos() {
+    List<?> encontrados = pacienteRepository.buscarPorTrechoDoNome(
+      "silva",
+      "silva",
+      "silvb",
+      10
+    );
+
+    List<String> plano = explicar("silva", "silvb", "silva", 10, "silva", "silva");
+
+    assertThat(encontrados).hasSize(10);
+    assertThat(plano)
+      .anyMatch(linha ->
+        linha.contains("Index Scan using idx_paciente_nome_trgm_gist")
+      )
+      .noneMatch(linha -> linha.contains("Bitmap"))
+      .noneMatch(linha -> linha.contains("Seq Scan"));
+  }
+
+  // Parâmetros na ordem dos ? do SQL gerado; nomeados repetidos aparecem uma
+  // vez por ocorrência
+  private List<String> explicar(Object... parametros) {
+    assertThat(SqlCapturado.COMANDOS).isNotEmpty();
+    String sql = SqlCapturado.COMANDOS.get(SqlCapturado.COMANDOS.size() - 1);
+
+    jdbcTemplate.execute("PREPARE plano AS " + numerarParametros(sql));
+    try {
+      String valores = List.of(parametros)
+        .stream()
+        .map(v -> v instanceof Number ? v.toString() : "'" + v + "'")
+        .collect(Collectors.joining(", "));
+      return jdbcTemplate.queryForList(
+        "EXPLAIN (ANALYZE, COSTS OFF) EXECUTE plano(" + valores + ")",
+        String.class
+      );
+    } finally {
+      jdbcTemplate.execute("DEALLOCATE plano");
+    }
+  }
+
+  // O Hibernate usa ? e o PREPARE do PostgreSQL espera $1, $2...
+  private static String numerarParametros(String sql) {
+    StringBuilder numerado = new StringBuilder(sql.length() + 16);
+    boolean emTexto = false;
+    int parametro = 0;
+    for (char c : sql.toCharArray()) {
+      if (c == '\'') {
+        emTexto = !emTexto;
+      }
+      if (c == '?' && !emTexto) {
+        numerado.append('$').append(++parametro);
+      } else {
+        numerado.append(c);
+      }
+    }
+    return numerado.toString();
+  }
+
+  /** Guarda os comandos que o Hibernate envia ao banco. */
+  public static class SqlCapturado implements StatementInspector {
+
+    static final List<String> COMANDOS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+      COMANDOS.add(sql);
+      return sql;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package br.com.gestao_hospitalar.paciente_service.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import br.com.gestao_hospitalar.paciente_service.repository.TransacaoPontosRepository.Lancamento;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Extrato de pontos contra o schema das migrations: crédito e débito mudam o
+ * saldo e gravam o lançamento no mesmo comando, o débito não deixa o saldo
+ * negativo e lançamentos gravados não podem ser alterados.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class PontosLedgerTests {
+
+  @Container
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+    "postgres:17"
+  );
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+  }
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PacienteRepository pacienteRepository;
+
+  @Autowired
+  private TransacaoPontosRepository transacaoPontosRepository;
+
+  private UUID pacienteId;
+
+  @BeforeEach
+  void criarPaciente() {
+    pacienteId = UUID.randomUUID();
+    jdbcTemplate.update(
+      "INSERT INTO paciente (id, cpf, email, nome) VALUES (?, ?, ?, ?)",
+      pacienteId,
+      "12345678901",
+      "paciente@teste.com",
+      "Paciente Teste"
+    );
+  }
+
+  @Test
+  void creditoEDebitoAtualizamSaldoEExtrato() {
+    assertThat(
+      pacienteRepository.creditarPontos(pacienteId, 10, "Compra", 50.0)
+    ).isEqualTo(1);
+    assertThat(
+      pacienteRepository.debitarPontos(pacienteId, 4, "Consulta")
+    ).isEqualTo(1);
+
+    assertThat(pacienteRepository.findPontosById(pacienteId)).contains(6);
+
+    List<Lancamento> extrato = transacaoPontosRepository.buscarHistorico(
+      pacienteId,
+      Limit.of(10)
+    );
+    assertThat(extrato)
+      .extracting(Lancamento::getTipo, Lancamento::getQuantidade)
+      .containsExactlyInAnyOrder(
+        tuple("ENTRADA", 10),
+        tuple("SAIDA", 4)
+      );
+    assertThat(extrato).allSatisfy(l -> assertThat(l.getData()).isNotNull());
+  }
+
+  @Test
+  void debitoSemSaldoNaoAlteraNada() {
+    pacienteRepository.creditarPontos(pacienteId, 3, "Compra", 15.0);
+
+    assertThat(
+      pacienteRepository.debitarPontos(pacienteId, 5, "Consulta")
+    ).isZero();
+
+    assertThat(pacienteRepository.findPontosById(pacienteId)).contains(3);
+    assertThat(
+      transacaoPontosRepository.buscarHistorico(pacienteId, Limit.of(10))
+    ).hasSize(1);
+  }
+
+  @Test
+  void creditoParaPacienteInexistenteNaoGravaLancamento() {
+    assertThat(
+      pacienteRepository.creditarPontos(UUID.randomUUID(), 10, "Compra", 50.0)
+    ).isZero();
+  }
+
+  @Test
+  void lancamentoGravadoNaoPodeSerAlterado() {
+    pacienteRepository.creditarPontos(pacienteId, 10, "Compra", 50.0);
+
+    assertThatThrownBy(() ->
+      jdbcTemplate.update(
+        "UPDATE transacao_pontos SET quantidade = 1000 WHERE paciente_id = ?",
+        pacienteId
+      )
+    )
+      .isInstanceOf(DataAccessException.class)
+      .hasMessageContaining("não permite alteração");
+  }
+
+  @Test
+  void lancamentoSemDataERecusado() {
+    assertThatThrownBy(() ->
+      jdbcTemplate.update(
+        "INSERT INTO transacao_pontos (paciente_id, tipo, descricao, quantidade, valor, data) " +
+        "VALUES (?, 'ENTRADA', 'Compra', 1, 5, NULL)",
+        pacienteId
+      )
+    ).isInstanceOf(DataAccessException.class);
+  }
+}